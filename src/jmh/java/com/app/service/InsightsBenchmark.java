@@ -0,0 +1,82 @@
+package com.app.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User insights (top task, best streak, perfect days, consistency) over every
+ * completion a user has: the single pass over primitive rows against grouping
+ * boxed dates per task and per day.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InsightsBenchmark {
+
+    @Param({"1", "20", "200"})
+    int tasks;
+
+    @Param({"1", "10"})
+    int years;
+
+    private SyntheticHistory history;
+    private Map<Integer, List<LocalDate>> datesByTask;
+
+    @Setup
+    public void setUp() {
+        history = new SyntheticHistory(tasks, years, 0.9);
+        datesByTask = new HashMap<>();
+        for (int t = 0; t < tasks; t++) {
+            datesByTask.put(history.taskIds[t], history.dates(t));
+        }
+    }
+
+    @Benchmark
+    public CompletionInsights singlePass() {
+        return CompletionInsights.compute(
+                history.completionDays, history.taskIds, history.createdDays, history.todayDay);
+    }
+
+    // Baseline: per-task date lists and a per-day map of completed task counts
+    @Benchmark
+    public long[] groupedDates() {
+        long top = 0;
+        int best = 0;
+        Map<LocalDate, Integer> tasksPerDay = new HashMap<>();
+
+        for (List<LocalDate> dates : datesByTask.values()) {
+            top = Math.max(top, dates.size());
+            int run = 0;
+            LocalDate previous = null;
+            for (LocalDate date : dates) {
+                run = previous != null && previous.plusDays(1).equals(date) ? run + 1 : 1;
+                best = Math.max(best, run);
+                previous = date;
+                tasksPerDay.merge(date, 1, Integer::sum);
+            }
+        }
+
+        long perfectDays = tasksPerDay.values().stream()
+                .filter(done -> done == datesByTask.size())
+                .count();
+        return new long[]{top, best, perfectDays};
+    }
+}
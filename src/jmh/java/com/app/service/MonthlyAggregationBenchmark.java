@@ -0,0 +1,83 @@
+package com.app.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The twelve-month per-task series the graph endpoints chart. The endpoints
+ * read these from the monthly rollups; this measures building the same series
+ * in memory from each task's bitmap against bucketing its dates by month.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonthlyAggregationBenchmark {
+
+    private static final int MONTHS = 12;
+
+    @Param({"1", "20", "200"})
+    int tasks;
+
+    @Param({"1", "10"})
+    int years;
+
+    private YearMonth firstMonth;
+    private CompletionBitmap[] bitmaps;
+    private List<LocalDate>[] dates;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        SyntheticHistory history = new SyntheticHistory(tasks, years, 0.7);
+        firstMonth = YearMonth.from(history.today).minusMonths(MONTHS - 1);
+        bitmaps = new CompletionBitmap[tasks];
+        dates = new List[tasks];
+        for (int t = 0; t < tasks; t++) {
+            bitmaps[t] = history.bitmap(t);
+            dates[t] = history.dates(t);
+        }
+    }
+
+    @Benchmark
+    public long[][] bitmapMonthCounts() {
+        long[][] counts = new long[tasks][MONTHS];
+        for (int t = 0; t < tasks; t++) {
+            YearMonth month = firstMonth;
+            for (int m = 0; m < MONTHS; m++, month = month.plusMonths(1)) {
+                counts[t][m] = bitmaps[t].count(month.atDay(1), month.atEndOfMonth());
+            }
+        }
+        return counts;
+    }
+
+    // Baseline: walk every date and bucket those inside the window by month
+    @Benchmark
+    public long[][] dateMonthBuckets() {
+        long[][] counts = new long[tasks][MONTHS];
+        for (int t = 0; t < tasks; t++) {
+            for (LocalDate date : dates[t]) {
+                long slot = ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(date));
+                if (slot >= 0 && slot < MONTHS) counts[t][(int) slot]++;
+            }
+        }
+        return counts;
+    }
+}
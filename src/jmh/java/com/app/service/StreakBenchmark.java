@@ -0,0 +1,75 @@
+package com.app.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streak figures behind the task full-stats endpoint: building a task's bitmap
+ * from its epoch days, then the current and best runs, against a scan of the
+ * sorted completion dates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreakBenchmark {
+
+    @Param({"1", "5", "10"})
+    int years;
+
+    private SyntheticHistory history;
+    private CompletionBitmap bitmap;
+    private List<LocalDate> dates;
+
+    @Setup
+    public void setUp() {
+        history = new SyntheticHistory(1, years, 0.7);
+        bitmap = history.bitmap(0);
+        dates = history.dates(0);
+    }
+
+    @Benchmark
+    public CompletionBitmap buildBitmap() {
+        return CompletionBitmap.ofEpochDays(history.daysByTask[0]);
+    }
+
+    @Benchmark
+    public CompletionBitmap.Run bestRun() {
+        return bitmap.bestRun();
+    }
+
+    @Benchmark
+    public CompletionBitmap.Run currentRun() {
+        return bitmap.runContaining(history.today);
+    }
+
+    // Baseline: one pass over sorted dates tracking the current and best run
+    @Benchmark
+    public int[] dateListStreaks() {
+        int best = 0;
+        int run = 0;
+        LocalDate previous = null;
+        for (LocalDate date : dates) {
+            run = previous != null && previous.plusDays(1).equals(date) ? run + 1 : 1;
+            best = Math.max(best, run);
+            previous = date;
+        }
+        int current = history.today.equals(previous) ? run : 0;
+        return new int[]{current, best};
+    }
+}
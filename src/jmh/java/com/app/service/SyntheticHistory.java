@@ -0,0 +1,77 @@
+package com.app.service;
+
+import com.app.repository.projection.CompletionDays;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic completion histories for benchmarks: {@code tasks} tasks, each
+ * created {@code years} years before {@code today} and completed on roughly
+ * {@code density} of its days in streaky runs.
+ */
+final class SyntheticHistory {
+
+    final LocalDate today = LocalDate.of(2025, 6, 30);
+    final int todayDay = (int) today.toEpochDay();
+
+    final int[] taskIds;
+    final int[] createdDays;
+    final int[][] daysByTask;
+    final CompletionDays completionDays;
+
+    SyntheticHistory(int tasks, int years, double density) {
+        SplittableRandom random = new SplittableRandom(42L * tasks + years);
+        int firstDay = (int) today.minusYears(years).toEpochDay();
+
+        taskIds = new int[tasks];
+        createdDays = new int[tasks];
+        daysByTask = new int[tasks][];
+
+        int total = 0;
+        for (int t = 0; t < tasks; t++) {
+            taskIds[t] = t + 1;
+            createdDays[t] = firstDay;
+
+            // Alternate completed and missed runs so streaks have realistic lengths
+            int[] days = new int[todayDay - firstDay + 1];
+            int size = 0;
+            boolean completing = random.nextDouble() < density;
+            for (int day = firstDay; day <= todayDay; ) {
+                int run = 1 + random.nextInt(completing ? 20 : Math.max(1, (int) (20 * (1 - density) / density)));
+                for (int i = 0; i < run && day <= todayDay; i++, day++) {
+                    if (completing) days[size++] = day;
+                }
+                completing = !completing;
+            }
+            daysByTask[t] = Arrays.copyOf(days, size);
+            total += size;
+        }
+
+        int[] rowTaskIds = new int[total];
+        int[] rowDays = new int[total];
+        int row = 0;
+        for (int t = 0; t < tasks; t++) {
+            for (int day : daysByTask[t]) {
+                rowTaskIds[row] = taskIds[t];
+                rowDays[row++] = day;
+            }
+        }
+        completionDays = new CompletionDays(rowTaskIds, rowDays, total);
+    }
+
+    CompletionBitmap bitmap(int task) {
+        return CompletionBitmap.ofEpochDays(daysByTask[task]);
+    }
+
+    List<LocalDate> dates(int task) {
+        List<LocalDate> dates = new ArrayList<>(daysByTask[task].length);
+        for (int day : daysByTask[task]) {
+            dates.add(LocalDate.ofEpochDay(day));
+        }
+        return dates;
+    }
+}
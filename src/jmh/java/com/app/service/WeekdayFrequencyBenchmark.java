@@ -0,0 +1,54 @@
+package com.app.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-weekday completion counts for {@code getTaskFrequencyPerWeek}: counting
+ * straight off the bitmap words against materialising the dates first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeekdayFrequencyBenchmark {
+
+    @Param({"1", "5", "10"})
+    int years;
+
+    private CompletionBitmap bitmap;
+
+    @Setup
+    public void setUp() {
+        bitmap = new SyntheticHistory(1, years, 0.7).bitmap(0);
+    }
+
+    @Benchmark
+    public long[] countByDayOfWeek() {
+        return bitmap.countByDayOfWeek();
+    }
+
+    // Baseline: the previous implementation
+    @Benchmark
+    public long[] datesThenDayOfWeek() {
+        long[] counts = new long[7];
+        for (LocalDate date : bitmap.dates()) {
+            counts[date.getDayOfWeek().ordinal()]++;
+        }
+        return counts;
+    }
+}
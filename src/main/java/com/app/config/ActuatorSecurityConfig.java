@@ -0,0 +1,70 @@
+package com.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.security.autoconfigure.actuate.web.servlet.EndpointRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Actuator endpoints get their own filter chain, ahead of the user chain in
+ * {@link SecurityConfig}: health is public, everything else (metrics, the
+ * Prometheus scrape) needs HTTP Basic with the scrape credentials. App users'
+ * sessions and JWTs grant no access here.
+ * <p>
+ * Without {@code trackify.actuator.password} nobody can scrape: everything
+ * but health is denied, and the app still starts.
+ */
+@Configuration
+public class ActuatorSecurityConfig {
+
+    @Bean
+    @Order(1)
+    SecurityFilterChain actuatorSecurityFilterChain(
+            HttpSecurity http,
+            @Value("${trackify.actuator.username}") String username,
+            @Value("${trackify.actuator.password:}") String password
+    ) throws Exception {
+
+        http
+                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+        if (password.isBlank()) {
+            http.authorizeHttpRequests(auth -> auth
+                    .requestMatchers(EndpointRequest.to("health")).permitAll()
+                    .anyRequest().denyAll()
+            );
+            return http.build();
+        }
+
+        PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        InMemoryUserDetailsManager scrapers = new InMemoryUserDetailsManager(User.withUsername(username)
+                .password(encoder.encode(password))
+                .roles("METRICS")
+                .build());
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(scrapers);
+        provider.setPasswordEncoder(encoder);
+
+        http
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(EndpointRequest.to("health")).permitAll()
+                        .anyRequest().hasRole("METRICS")
+                )
+                .authenticationManager(new ProviderManager(provider))
+                .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.app.config;
+
+import com.app.service.CurrentUserResolver;
+import com.app.service.UserDataVersions;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Conditional GETs for the reads dashboards poll. Every path here must answer
+ * only from the user's task and subtask data (and today's date), since those
+ * are all the ETag covers; CSV exports are left out.
+ */
+@Configuration
+public class ConditionalGetConfig implements WebMvcConfigurer {
+
+    private final CurrentUserResolver currentUserResolver;
+    private final UserDataVersions dataVersions;
+
+    public ConditionalGetConfig(CurrentUserResolver currentUserResolver, UserDataVersions dataVersions) {
+        this.currentUserResolver = currentUserResolver;
+        this.dataVersions = dataVersions;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new ConditionalGetInterceptor(currentUserResolver, dataVersions))
+                .addPathPatterns(
+                        "/api/tasks",
+                        "/api/tasks/*/streak",
+                        "/api/tasks/*/stats",
+                        "/api/tasks/*/full-stats",
+                        "/api/tasks/completed-dates",
+                        "/api/tasks/completedOveralldates",
+                        "/api/tasks/getInsights",
+                        "/api/subtasks/list/*",
+                        "/api/subtasks/*/subtasks/status",
+                        "/api/graph/**"
+                );
+    }
+}
@@ -0,0 +1,50 @@
+package com.app.config;
+
+import com.app.service.CurrentUserResolver;
+import com.app.service.UserDataVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Tags reads of the user's own data with the user's data version as a strong
+ * ETag, and answers a matching {@code If-None-Match} with 304 before the
+ * handler runs, so unchanged re-fetches cost no queries and no serialization.
+ * <p>
+ * Handlers that serve another representation of a URL (e.g. the bitset
+ * completed-dates) declare it in {@code produces}; it becomes part of the
+ * ETag, and responses vary by {@code Accept}.
+ */
+class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final CurrentUserResolver currentUserResolver;
+    private final UserDataVersions dataVersions;
+
+    ConditionalGetInterceptor(CurrentUserResolver currentUserResolver, UserDataVersions dataVersions) {
+        this.currentUserResolver = currentUserResolver;
+        this.dataVersions = dataVersions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod())) return true;
+
+        @SuppressWarnings("unchecked")
+        Set<MediaType> produces = (Set<MediaType>) request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+        String representation = produces == null || produces.isEmpty() ? null : produces.iterator().next().getSubtype();
+
+        String etag = dataVersions.etag(currentUserResolver.currentUserId(), LocalDate.now(), representation);
+
+        // Cacheable by the browser only, and always revalidated
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
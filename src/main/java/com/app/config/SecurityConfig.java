@@ -36,7 +36,8 @@ public class SecurityConfig {
                         .requestMatchers(
                                 "/",
                                 "/oauth2/**",
-                                "/api/session-check"
+                                "/api/session-check",
+                                WebSocketConfig.ENDPOINT // authenticated per STOMP CONNECT
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,115 @@
+package com.app.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-request SQL statistics: the DataSource is wrapped so every statement and
+ * result row is counted against the current request, and
+ * {@link SqlMetricsInterceptor} publishes the totals per controller method.
+ * <p>
+ * Budgets ({@code trackify.sql.budgets[Controller.method]=n}) are logged when
+ * exceeded, or fail the statement over budget when
+ * {@code trackify.sql.enforce-budgets} is on (as in tests).
+ */
+@Configuration
+public class SqlMetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry registry;
+    private final Map<String, Integer> budgets;
+    private final boolean enforceBudgets;
+
+    public SqlMetricsConfig(MeterRegistry registry,
+                            Environment environment,
+                            @Value("${trackify.sql.enforce-budgets:false}") boolean enforceBudgets) {
+        this.registry = registry;
+        this.budgets = Binder.get(environment)
+                .bind("trackify.sql.budgets", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+        this.enforceBudgets = enforceBudgets;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new SqlMetricsInterceptor(registry, budgets, enforceBudgets));
+    }
+
+    // Counting rows read proxies every ResultSet call, so it is off unless trackify.sql.count-rows=true
+    @Bean
+    static BeanPostProcessor sqlStatisticsDataSourceProxy(Environment environment) {
+        boolean countRows = environment.getProperty("trackify.sql.count-rows", Boolean.class, false);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) return bean;
+
+                StatisticsListener listener = new StatisticsListener();
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, dataSource).listener(listener);
+                if (countRows) {
+                    builder.proxyResultSet().methodListener(listener);
+                }
+                return builder.build();
+            }
+        };
+    }
+
+    private static final class StatisticsListener implements QueryExecutionListener, MethodExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+            SqlRequestStatistics statistics = SqlRequestStatistics.current();
+            if (statistics != null) statistics.statementStarting(System.nanoTime());
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+            SqlRequestStatistics statistics = SqlRequestStatistics.current();
+            if (statistics == null) return;
+
+            // Update counts; rows read from result sets are counted in afterMethod
+            long rows = 0;
+            if (execution.getResult() instanceof Integer updated) {
+                rows = Math.max(updated, 0);
+            } else if (execution.getResult() instanceof int[] batch) {
+                for (int updated : batch) rows += Math.max(updated, 0);
+            }
+            // ExecutionInfo.getElapsedTime() is whole milliseconds, which rounds most statements to 0
+            statistics.statementFinished(rows, System.nanoTime());
+        }
+
+        @Override
+        public void beforeMethod(MethodExecutionContext context) {
+        }
+
+        @Override
+        public void afterMethod(MethodExecutionContext context) {
+            if (context.getTarget() instanceof ResultSet
+                    && context.getMethod().getName().equals("next")
+                    && Boolean.TRUE.equals(context.getResult())) {
+                SqlRequestStatistics statistics = SqlRequestStatistics.current();
+                if (statistics != null) statistics.rowRead();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.app.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Counts the SQL each controller method issues and records it, tagged by
+ * controller and method, as {@code sql.request.statements},
+ * {@code sql.request.rows} and {@code sql.request.time}.
+ */
+class SqlMetricsInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlMetricsInterceptor.class);
+
+    private final MeterRegistry registry;
+    private final Map<String, Integer> budgets;
+    private final boolean enforceBudgets;
+
+    SqlMetricsInterceptor(MeterRegistry registry, Map<String, Integer> budgets, boolean enforceBudgets) {
+        this.registry = registry;
+        this.budgets = budgets;
+        this.enforceBudgets = enforceBudgets;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            String controller = method.getBeanType().getSimpleName();
+            String name = method.getMethod().getName();
+            int budget = budgets.getOrDefault(controller + "." + name, -1);
+            SqlRequestStatistics.begin(controller, name, budget, enforceBudgets);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        SqlRequestStatistics statistics = SqlRequestStatistics.end();
+        if (statistics == null) return;
+
+        Tags tags = Tags.of("controller", statistics.controller(), "method", statistics.method());
+        registry.summary("sql.request.statements", tags).record(statistics.statements());
+        registry.summary("sql.request.rows", tags).record(statistics.rows());
+        registry.timer("sql.request.time", tags).record(Duration.ofNanos(statistics.elapsedNanos()));
+
+        if (statistics.overBudget() && !enforceBudgets) {
+            log.warn("{} issued {} SQL statements, budget is {}",
+                    statistics.handler(), statistics.statements(), statistics.budget());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.app.config;
+
+/**
+ * SQL work done on the current request thread: statements executed, rows read
+ * or written, and time spent in the database.
+ * <p>
+ * Statements issued from other threads (e.g. {@code @Async} work) are not counted.
+ */
+public final class SqlRequestStatistics {
+
+    private static final ThreadLocal<SqlRequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private final String controller;
+    private final String method;
+    private final int budget;
+    private final boolean enforceBudget;
+
+    private int statements;
+    private long rows;
+    private long elapsedNanos;
+    private long statementStartedNanos;
+
+    private SqlRequestStatistics(String controller, String method, int budget, boolean enforceBudget) {
+        this.controller = controller;
+        this.method = method;
+        this.budget = budget;
+        this.enforceBudget = enforceBudget;
+    }
+
+    /**
+     * Starts counting for the current thread.
+     *
+     * @param budget        statements the handler may issue, or a negative value for no limit
+     * @param enforceBudget whether the statement over budget fails instead of only being reported
+     */
+    static SqlRequestStatistics begin(String controller, String method, int budget, boolean enforceBudget) {
+        SqlRequestStatistics statistics = new SqlRequestStatistics(controller, method, budget, enforceBudget);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Statistics of the current thread's request, or {@code null} outside one.
+     */
+    public static SqlRequestStatistics current() {
+        return CURRENT.get();
+    }
+
+    static SqlRequestStatistics end() {
+        SqlRequestStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    void statementStarting(long nanoTime) {
+        statementStartedNanos = nanoTime;
+        statements++;
+        if (enforceBudget && overBudget()) {
+            throw new IllegalStateException("SQL budget exceeded: " + handler() + " issued "
+                    + statements + " statements, budget is " + budget);
+        }
+    }
+
+    void statementFinished(long rowsAffected, long nanoTime) {
+        rows += rowsAffected;
+        elapsedNanos += nanoTime - statementStartedNanos;
+    }
+
+    void rowRead() {
+        rows++;
+    }
+
+    public String controller() {
+        return controller;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String handler() {
+        return controller + "." + method;
+    }
+
+    public int budget() {
+        return budget;
+    }
+
+    public boolean overBudget() {
+        return budget >= 0 && statements > budget;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,69 @@
+package com.app.config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Authenticates STOMP sessions with the same access tokens as the REST API,
+ * sent as an {@code Authorization: Bearer ...} header of the CONNECT frame
+ * (browsers cannot set headers on the WebSocket handshake itself).
+ * <p>
+ * Clients may only subscribe to their own completion queue; nothing is
+ * accepted from them otherwise.
+ */
+class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private final JwtUtil jwtUtil;
+
+    StompAuthenticationInterceptor(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) return message;
+
+        switch (accessor.getCommand()) {
+            case CONNECT, STOMP -> accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+            case SUBSCRIBE -> {
+                if (!WebSocketConfig.COMPLETIONS_QUEUE.equals(accessor.getDestination())) {
+                    throw new MessageDeliveryException("Unknown destination " + accessor.getDestination());
+                }
+            }
+            case SEND -> throw new MessageDeliveryException("Sending is not supported");
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new MessageDeliveryException("Missing access token");
+        }
+
+        String email;
+        try {
+            email = jwtUtil.validateTokenAndGetEmail(authHeader.substring(7));
+        } catch (Exception ex) {
+            throw new MessageDeliveryException("Invalid access token");
+        }
+
+        // Named by email, like the REST principal; user destinations resolve by this name
+        return new UsernamePasswordAuthenticationToken(
+                email,
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+    }
+}
@@ -0,0 +1,46 @@
+package com.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * STOMP over WebSocket at {@code /ws}. Each authenticated session subscribes to
+ * {@code /user/queue/completions} and receives completion changes made by any
+ * session of the same user (see {@link com.app.service.CompletionPublisher}).
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    public static final String ENDPOINT = "/ws";
+    public static final String COMPLETIONS_QUEUE = "/user/queue/completions";
+
+    private final JwtUtil jwtUtil;
+    private final String frontendUrl;
+
+    public WebSocketConfig(JwtUtil jwtUtil, @Value("${FRONTEND_URL}") String frontendUrl) {
+        this.jwtUtil = jwtUtil;
+        this.frontendUrl = frontendUrl;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint(ENDPOINT).setAllowedOrigins(frontendUrl);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/queue");
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new StompAuthenticationInterceptor(jwtUtil));
+    }
+}
@@ -1,7 +1,9 @@
 package com.app.controller;
 
+import com.app.dto.CompletionBatchResult;
 import com.app.dto.CreateSubtaskRequest;
 import com.app.dto.SubTaskResponse;
+import com.app.dto.SubtaskCompletionOperation;
 import com.app.dto.SubtaskStatusResponse;
 import com.app.model.Subtask;
 import com.app.service.SubtaskService;
@@ -60,12 +62,20 @@ public class SubtaskController {
     }
 
     @PostMapping("/{subtaskId}/toggle")
-    public Map<String, String> toggleSubtask(
+    public Map<String, Object> toggleSubtask(
             @PathVariable Integer subtaskId,
             @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
     ) {
-        subtaskService.toggleSubtaskCompleted(subtaskId, date);
-        return Map.of("message", "Subtask toggled successfully");
+        boolean completed = subtaskService.toggleSubtaskCompleted(subtaskId, date);
+        return Map.of(
+                "message", "Subtask toggled successfully",
+                "completed", completed
+        );
+    }
+
+    @PostMapping("/completions/batch")
+    public List<CompletionBatchResult> applyCompletionBatch(@RequestBody List<SubtaskCompletionOperation> operations) {
+        return subtaskService.applyCompletionBatch(operations);
     }
 
     @GetMapping("/{taskId}/subtasks/status")
@@ -0,0 +1,26 @@
+package com.app.controller;
+
+import com.app.dto.SyncResponse;
+import com.app.service.SyncService;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "http://localhost:5174")
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    // Without a cursor: the full state, paged. Then poll with the returned cursor
+    @GetMapping
+    public SyncResponse sync(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "1000") int limit
+    ) {
+        return syncService.changesSince(cursor, limit);
+    }
+}
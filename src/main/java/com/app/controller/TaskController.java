@@ -1,15 +1,22 @@
 package com.app.controller;
 
+import com.app.dto.CompletedDaysBitset;
+import com.app.dto.CompletionBatchResult;
+import com.app.dto.CompletionToggleResponse;
+import com.app.dto.ImportReportResponse;
 import com.app.dto.InsightsResponse;
+import com.app.dto.TaskCompletionOperation;
 import com.app.dto.TaskFullStatsResponse;
 import com.app.dto.TaskResponse;
 import com.app.dto.TaskStatsResponse;
 import com.app.model.Task;
+import com.app.service.TaskImportService;
 import com.app.service.TaskService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,10 +31,14 @@ import java.io.IOException;
 @RequestMapping("/api/tasks")
 public class TaskController {
 
+    public static final String BITSET_JSON = "application/vnd.trackify.bitset+json";
+
     private final TaskService taskService;
+    private final TaskImportService taskImportService;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskImportService taskImportService) {
         this.taskService = taskService;
+        this.taskImportService = taskImportService;
     }
 
     // list tasks for logged-in user
@@ -53,11 +64,17 @@ public class TaskController {
     }
 
     @PostMapping("/{taskId}/toggle")
-    public void toggleTask(
+    public CompletionToggleResponse toggleTask(
             @PathVariable Integer taskId,
             @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
     ) {
-        taskService.toggleCompleted(taskId, date);
+        boolean completed = taskService.toggleCompleted(taskId, date);
+        return new CompletionToggleResponse(taskId, date, completed);
+    }
+
+    @PostMapping("/completions/batch")
+    public List<CompletionBatchResult> applyCompletionBatch(@RequestBody List<TaskCompletionOperation> operations) {
+        return taskService.applyCompletionBatch(operations);
     }
 
     @GetMapping("/{taskId}/streak")
@@ -86,6 +103,38 @@ public class TaskController {
         return taskService.getLast12MonthsDates(taskId);
     }
 
+    // ===== Bitset representations (Accept: application/vnd.trackify.bitset+json, or ?format=bitset) =====
+
+    @GetMapping(value = "/completed-dates", produces = BITSET_JSON)
+    public Map<Integer, CompletedDaysBitset> getAllCompletedDaysBitsets(
+            @RequestParam(required = false) Integer taskId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") String month
+    ) {
+        return taskService.getAllCompletedDaysBitsets(taskId, month);
+    }
+
+    @GetMapping(value = "/completed-dates", params = "format=bitset", produces = BITSET_JSON)
+    public Map<Integer, CompletedDaysBitset> getAllCompletedDaysBitsetsByFormat(
+            @RequestParam(required = false) Integer taskId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") String month
+    ) {
+        return taskService.getAllCompletedDaysBitsets(taskId, month);
+    }
+
+    @GetMapping(value = "/completedOveralldates", produces = BITSET_JSON)
+    public CompletedDaysBitset getLast12MonthsCompletedDaysBitset(
+            @RequestParam(required = true) Integer taskId
+    ) {
+        return taskService.getLast12MonthsBitset(taskId);
+    }
+
+    @GetMapping(value = "/completedOveralldates", params = "format=bitset", produces = BITSET_JSON)
+    public CompletedDaysBitset getLast12MonthsCompletedDaysBitsetByFormat(
+            @RequestParam(required = true) Integer taskId
+    ) {
+        return taskService.getLast12MonthsBitset(taskId);
+    }
+
 
     // Delete a task along with its completions
     @DeleteMapping("/{taskId}")
@@ -103,29 +152,35 @@ public class TaskController {
     }
 
     @GetMapping("/export/tasks")
-    public void exportTasksCsv(HttpServletResponse response) throws IOException {
-        taskService.exportTasksCsv(response);
+    public void exportTasksCsv(
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding,
+            HttpServletResponse response
+    ) throws IOException {
+        taskService.exportTasksCsv(response, acceptsGzip(acceptEncoding));
     }
 
     @GetMapping("/export/task-completions")
-    public void exportTaskCompletionsCsv(HttpServletResponse response) throws IOException {
-        taskService.exportTaskCompletionsCsv(response);
+    public void exportTaskCompletionsCsv(
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding,
+            HttpServletResponse response
+    ) throws IOException {
+        taskService.exportTaskCompletionsCsv(response, acceptsGzip(acceptEncoding));
     }
 
     @PostMapping("/import/tasks")
     public Map<Integer, Integer> importTasks(
             @RequestParam("file") MultipartFile file
     ) throws IOException {
-        return taskService.importTasksCsv(file);
+        return taskImportService.importTasksCsv(file);
     }
 
+    // Every request param other than "file" is an oldTaskId=newTaskId pair
     @PostMapping("/import/task-completions")
-    public Map<String, String> importTaskCompletions(
+    public ImportReportResponse importTaskCompletions(
             @RequestParam("file") MultipartFile file,
-            @RequestParam Map<Integer, Integer> taskIdMapping
+            @RequestParam Map<String, String> taskIdMapping
     ) throws IOException {
-        taskService.importTaskCompletionsCsv(file, taskIdMapping);
-        return Map.of("message", "Task completions imported successfully");
+        return taskImportService.importTaskCompletionsCsv(file, parseTaskIdMapping(taskIdMapping));
     }
 
     @GetMapping("/{taskId}/full-stats")
@@ -138,5 +193,33 @@ public class TaskController {
         return taskService.getUserInsights();
     }
 
-
+    // A gzip entry wins over "*"; either one with q=0 refuses gzip
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            boolean accepted = parts.length == 1 || !parts[1].replace(" ", "").matches("(?i)q=0(\\.0*)?");
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return wildcard;
+    }
+
+    private static Map<Integer, Integer> parseTaskIdMapping(Map<String, String> params) {
+        Map<Integer, Integer> mapping = new HashMap<>();
+        params.forEach((oldTaskId, newTaskId) -> {
+            try {
+                mapping.put(Integer.parseInt(oldTaskId.trim()), Integer.parseInt(newTaskId.trim()));
+            } catch (NumberFormatException ignored) {
+            }
+        });
+        return mapping;
+    }
 }
@@ -0,0 +1,56 @@
+package com.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Completed days as a bitset, for clients that ask for
+ * {@code application/vnd.trackify.bitset+json} or pass
+ * {@code format=bitset}: bit {@code i} of
+ * {@code bits} (base64, least significant bit of each byte first) is set when
+ * {@code start + i} days is completed. It spans the first to the last
+ * completed day, so a year of daily completions is 46 bytes.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompletedDaysBitset {
+
+    // First completed day; absent when there is none
+    private LocalDate start;
+
+    // Number of days the bits cover
+    private int days;
+
+    private String bits;
+
+    public static CompletedDaysBitset of(List<LocalDate> dates) {
+        int[] epochDays = new int[dates.size()];
+        for (int i = 0; i < epochDays.length; i++) {
+            epochDays[i] = (int) dates.get(i).toEpochDay();
+        }
+        return of(epochDays, 0, epochDays.length);
+    }
+
+    /**
+     * Encodes {@code epochDays[from, to)}, which must be distinct and ascending.
+     */
+    public static CompletedDaysBitset of(int[] epochDays, int from, int to) {
+        if (from == to) return new CompletedDaysBitset(null, 0, "");
+
+        int first = epochDays[from];
+        int days = epochDays[to - 1] - first + 1;
+
+        byte[] bits = new byte[(days + 7) >>> 3];
+        for (int i = from; i < to; i++) {
+            int offset = epochDays[i] - first;
+            bits[offset >>> 3] |= (byte) (1 << (offset & 7));
+        }
+        return new CompletedDaysBitset(LocalDate.ofEpochDay(first), days, Base64.getEncoder().encodeToString(bits));
+    }
+}
@@ -0,0 +1,35 @@
+package com.app.dto;
+
+import com.app.enums.CompletionChange;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class CompletionBatchResult {
+
+    // taskId or subtaskId, as sent
+    private Integer id;
+
+    private LocalDate date;
+
+    // State after the batch; null when the operation was rejected
+    private Boolean completed;
+
+    private CompletionChange change;
+
+    private String error;
+
+    public static CompletionBatchResult applied(Integer id, LocalDate date, boolean completed, boolean changed) {
+        CompletionChange change = !changed
+                ? CompletionChange.UNCHANGED
+                : completed ? CompletionChange.ADDED : CompletionChange.REMOVED;
+        return new CompletionBatchResult(id, date, completed, change, null);
+    }
+
+    public static CompletionBatchResult rejected(Integer id, LocalDate date, String error) {
+        return new CompletionBatchResult(id, date, null, null, error);
+    }
+}
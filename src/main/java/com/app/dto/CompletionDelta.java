@@ -0,0 +1,47 @@
+package com.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * A completion change pushed to the user's other sessions. Task changes carry
+ * the task's streaks and its completed days in the changed date's month, as
+ * they are after the change; subtask changes only the new state.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompletionDelta {
+
+    // "task" or "subtask"
+    private String type;
+
+    // taskId or subtaskId
+    private Integer id;
+
+    private LocalDate date;
+
+    private boolean completed;
+
+    private Integer currentStreak;
+
+    private Integer bestStreak;
+
+    private YearMonth month;
+
+    private Long monthCompletions;
+
+    public static CompletionDelta task(Integer taskId, LocalDate date, boolean completed,
+                                       int currentStreak, int bestStreak, long monthCompletions) {
+        return new CompletionDelta("task", taskId, date, completed,
+                currentStreak, bestStreak, YearMonth.from(date), monthCompletions);
+    }
+
+    public static CompletionDelta subtask(Integer subtaskId, LocalDate date, boolean completed) {
+        return new CompletionDelta("subtask", subtaskId, date, completed, null, null, null, null);
+    }
+}
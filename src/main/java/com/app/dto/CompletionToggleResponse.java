@@ -0,0 +1,14 @@
+package com.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class CompletionToggleResponse {
+    private Integer taskId;
+    private LocalDate date;
+    private boolean completed;
+}
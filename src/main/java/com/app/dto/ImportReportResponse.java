@@ -0,0 +1,30 @@
+package com.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ImportReportResponse {
+
+    private String message;
+
+    private int imported;
+
+    // Rows already completed, either earlier in the file or in the database
+    private int duplicates;
+
+    private int rejectedCount;
+
+    // First rejected rows with the reason (capped, see rejectedCount for the total)
+    private List<RowRejection> rejected;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowRejection {
+        private long line;
+        private String reason;
+    }
+}
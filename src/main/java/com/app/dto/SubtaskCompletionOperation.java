@@ -0,0 +1,10 @@
+package com.app.dto;
+
+import java.time.LocalDate;
+
+// One cell of a batch check-in: the desired state of subtaskId on date
+public record SubtaskCompletionOperation(
+        Integer subtaskId,
+        LocalDate date,
+        Boolean completed
+) {}
@@ -0,0 +1,62 @@
+package com.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes since a sync cursor. Tasks and subtasks come in their current state;
+ * a deleted task or subtask takes its completions (and a task its subtasks)
+ * with it. Completion maps are keyed by task / subtask id.
+ * <p>
+ * Changes come in log order, so a page may carry completions of a task that
+ * only arrives on a later page.
+ */
+@Getter
+@AllArgsConstructor
+public class SyncResponse {
+
+    private List<TaskResponse> tasks;
+
+    private List<Integer> deletedTaskIds;
+
+    private List<SyncedSubtask> subtasks;
+
+    private List<Integer> deletedSubtaskIds;
+
+    private Map<Integer, List<LocalDate>> completedDates;
+
+    private Map<Integer, List<LocalDate>> uncompletedDates;
+
+    private Map<Integer, List<LocalDate>> subtaskCompletedDates;
+
+    private Map<Integer, List<LocalDate>> subtaskUncompletedDates;
+
+    // Pass back to get the changes after this page
+    private String cursor;
+
+    // More changes are waiting; fetch again with the cursor right away
+    private boolean hasMore;
+
+    // The cursor is too old to catch up from: drop local data and sync again without one
+    private boolean fullSyncRequired;
+
+    public static SyncResponse fullSyncRequired() {
+        return new SyncResponse(List.of(), List.of(), List.of(), List.of(),
+                Map.of(), Map.of(), Map.of(), Map.of(), null, false, true);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SyncedSubtask {
+        private Integer id;
+        private Integer taskId;
+        private String title;
+        private Boolean isActive;
+        private Instant createdAt;
+    }
+}
@@ -0,0 +1,10 @@
+package com.app.dto;
+
+import java.time.LocalDate;
+
+// One cell of a batch check-in: the desired state of taskId on date
+public record TaskCompletionOperation(
+        Integer taskId,
+        LocalDate date,
+        Boolean completed
+) {}
@@ -0,0 +1,9 @@
+package com.app.enums;
+
+
+// Outcome of a completion write against the (id, completed_date) unique key
+public enum CompletionChange {
+    ADDED,
+    REMOVED,
+    UNCHANGED
+}
@@ -0,0 +1,10 @@
+package com.app.enums;
+
+
+// What a sync_changes row is about; completions are keyed by their task / subtask id
+public enum SyncKind {
+    TASK,
+    SUBTASK,
+    TASK_COMPLETION,
+    SUBTASK_COMPLETION
+}
@@ -18,6 +18,7 @@ import java.time.LocalDate;
 @Builder
 public class SubtaskCompletions {
 
+    // Unique through the identity sequence; the partitioned table's primary key is (id, completed_date)
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
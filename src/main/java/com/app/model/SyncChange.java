@@ -0,0 +1,50 @@
+package com.app.model;
+
+import com.app.enums.SyncKind;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Latest state of one synced key, see V4__sync_changes.sql
+@Entity
+@Table(name = "sync_changes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SyncKind kind;
+
+    // Task or subtask id, also for completions
+    @Column(name = "entity_id", nullable = false)
+    private Integer entityId;
+
+    // Completions only
+    @Column(name = "completed_date")
+    private LocalDate completedDate;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    // Tombstones expire some time after this
+    @Column(name = "changed_at", nullable = false)
+    @Builder.Default
+    private Instant changedAt = Instant.now();
+}
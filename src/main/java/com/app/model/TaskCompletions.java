@@ -8,7 +8,7 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "task_completions", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"task_id", "completion_date"})
+        @UniqueConstraint(columnNames = {"task_id", "completed_date"})
 })
 @Getter
 @Setter
@@ -17,6 +17,7 @@ import java.time.LocalDate;
 @Builder
 public class TaskCompletions {
 
+    // Unique through the identity sequence; the partitioned table's primary key is (id, completed_date)
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
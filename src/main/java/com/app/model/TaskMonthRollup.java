@@ -0,0 +1,38 @@
+package com.app.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "task_month_rollups")
+@IdClass(TaskMonthRollup.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskMonthRollup {
+
+    @Id
+    @Column(name = "task_id")
+    private Integer taskId;
+
+    // First day of the month
+    @Id
+    @Column(name = "month_start")
+    private LocalDate monthStart;
+
+    @Column(name = "completed_days", nullable = false)
+    private int completedDays;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Integer taskId;
+        private LocalDate monthStart;
+    }
+}
@@ -0,0 +1,48 @@
+package com.app.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "task_streaks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStreak {
+
+    @Id
+    @Column(name = "task_id")
+    private Integer taskId;
+
+    // Run ending at lastCompletedDate; it is the live streak only while that date is today
+    @Column(name = "current_streak", nullable = false)
+    private int currentStreak;
+
+    @Column(name = "current_from")
+    private LocalDate currentFrom;
+
+    @Column(name = "current_to")
+    private LocalDate currentTo;
+
+    // Longest run; of equal runs, the most recent
+    @Column(name = "best_streak", nullable = false)
+    private int bestStreak;
+
+    @Column(name = "best_from")
+    private LocalDate bestFrom;
+
+    @Column(name = "best_to")
+    private LocalDate bestTo;
+
+    @Column(name = "last_completed_date")
+    private LocalDate lastCompletedDate;
+
+    @Column(name = "updated_at")
+    @Builder.Default
+    private Instant updatedAt = Instant.now();
+}
@@ -0,0 +1,39 @@
+package com.app.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Entity
+@Table(name = "user_day_rollups")
+@IdClass(UserDayRollup.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserDayRollup {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "completed_date")
+    private LocalDate completedDate;
+
+    // A task completes at most once per day, so this is also the number of distinct tasks done that day
+    @Column(name = "completed_tasks", nullable = false)
+    private int completedTasks;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID userId;
+        private LocalDate completedDate;
+    }
+}
@@ -0,0 +1,22 @@
+package com.app.repository;
+
+import com.app.repository.projection.CompletionKey;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface CompletionRollupBulkOperations {
+
+    /**
+     * Counts inserted ({@code added}) and deleted ({@code removed}) completions of
+     * one user's tasks in both rollup tables, one upsert per table.
+     */
+    void addAll(UUID userId, List<CompletionKey> added, List<CompletionKey> removed);
+
+    /**
+     * Recomputes both rollup tables from {@code task_completions}. Writers that
+     * touch the rollups wait until the rebuild commits, so it is only meant for
+     * one-off backfills.
+     */
+    void rebuildAll();
+}
@@ -0,0 +1,96 @@
+package com.app.repository;
+
+import com.app.repository.projection.CompletionKey;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.UUID;
+
+class CompletionRollupBulkOperationsImpl implements CompletionRollupBulkOperations {
+
+    // Rows are upserted in key order so concurrent writers lock them in the same order
+    private static final String ADD_TASK_MONTHS = """
+            insert into task_month_rollups (task_id, month_start, completed_days)
+            select c.task_id, date_trunc('month', c.completed_date)::date, sum(c.delta)
+            from unnest(?::int[], ?::date[], ?::int[]) as c(task_id, completed_date, delta)
+            group by 1, 2
+            order by 1, 2
+            on conflict (task_id, month_start)
+            do update set completed_days = task_month_rollups.completed_days + excluded.completed_days
+            """;
+
+    private static final String ADD_USER_DAYS = """
+            insert into user_day_rollups (user_id, completed_date, completed_tasks)
+            select ?, c.completed_date, sum(c.delta)
+            from unnest(?::date[], ?::int[]) as c(completed_date, delta)
+            group by 2
+            order by 2
+            on conflict (user_id, completed_date)
+            do update set completed_tasks = user_day_rollups.completed_tasks + excluded.completed_tasks
+            """;
+
+    private static final String[] REBUILD = {
+            "lock table task_month_rollups, user_day_rollups in exclusive mode",
+            "delete from task_month_rollups",
+            "delete from user_day_rollups",
+            """
+            insert into task_month_rollups (task_id, month_start, completed_days)
+            select task_id, date_trunc('month', completed_date)::date, count(*)
+            from task_completions
+            group by 1, 2
+            """,
+            """
+            insert into user_day_rollups (user_id, completed_date, completed_tasks)
+            select t.user_id, tc.completed_date, count(*)
+            from task_completions tc
+            join tasks t on t.id = tc.task_id
+            group by 1, 2
+            """
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    CompletionRollupBulkOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void addAll(UUID userId, List<CompletionKey> added, List<CompletionKey> removed) {
+        int size = added.size() + removed.size();
+        if (size == 0) return;
+
+        Integer[] taskIds = new Integer[size];
+        String[] dates = new String[size];
+        Integer[] deltas = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boolean isAdded = i < added.size();
+            CompletionKey key = isAdded ? added.get(i) : removed.get(i - added.size());
+            taskIds[i] = key.taskId();
+            dates[i] = key.completedDate().toString();
+            deltas[i] = isAdded ? 1 : -1;
+        }
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(ADD_TASK_MONTHS);
+            ps.setArray(1, con.createArrayOf("integer", taskIds));
+            ps.setArray(2, con.createArrayOf("text", dates));
+            ps.setArray(3, con.createArrayOf("integer", deltas));
+            return ps;
+        });
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(ADD_USER_DAYS);
+            ps.setObject(1, userId);
+            ps.setArray(2, con.createArrayOf("text", dates));
+            ps.setArray(3, con.createArrayOf("integer", deltas));
+            return ps;
+        });
+    }
+
+    @Override
+    public void rebuildAll() {
+        for (String statement : REBUILD) {
+            jdbcTemplate.execute(statement);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.app.repository;
+
+import com.app.enums.CompletionChange;
+import com.app.repository.projection.SubtaskCompletionKey;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SubtaskCompletionBulkOperations {
+
+    /**
+     * Deletes the completion if it exists, otherwise inserts it, in one statement.
+     * {@code UNCHANGED} means a concurrent request inserted the same completion.
+     */
+    CompletionChange toggle(Integer subtaskId, LocalDate date);
+
+    /**
+     * Inserts all given completions in one statement, skipping any that already
+     * exist, and returns only the rows that were actually inserted.
+     */
+    List<SubtaskCompletionKey> insertIgnoringDuplicates(List<SubtaskCompletionKey> completions);
+
+    /**
+     * Deletes all given completions in one statement and returns the ones that existed.
+     */
+    List<SubtaskCompletionKey> deleteExisting(List<SubtaskCompletionKey> completions);
+
+    /**
+     * Creates the yearly partition for {@code year} unless it exists, moving
+     * that year's rows out of the default partition. Returns whether it was created.
+     */
+    boolean createYearPartition(int year);
+}
@@ -0,0 +1,101 @@
+package com.app.repository;
+
+import com.app.enums.CompletionChange;
+import com.app.repository.projection.SubtaskCompletionKey;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+
+class SubtaskCompletionBulkOperationsImpl implements SubtaskCompletionBulkOperations {
+
+    private static final String INSERT_IGNORING_DUPLICATES = """
+            insert into subtask_completions (subtask_id, completed_date, created_at)
+            select c.subtask_id, c.completed_date, now()
+            from unnest(?::int[], ?::date[]) as c(subtask_id, completed_date)
+            on conflict do nothing
+            returning subtask_id, completed_date
+            """;
+
+    private static final String DELETE_EXISTING = """
+            delete from subtask_completions sc
+            using unnest(?::int[], ?::date[]) as c(subtask_id, completed_date)
+            where sc.subtask_id = c.subtask_id and sc.completed_date = c.completed_date
+            returning sc.subtask_id, sc.completed_date
+            """;
+
+    private static final String TOGGLE = """
+            with deleted as (
+                delete from subtask_completions
+                where subtask_id = ?::int and completed_date = ?::date
+                returning 1
+            ), inserted as (
+                insert into subtask_completions (subtask_id, completed_date, created_at)
+                select ?::int, ?::date, now()
+                where not exists (select 1 from deleted)
+                on conflict do nothing
+                returning 1
+            )
+            select case
+                       when exists (select 1 from inserted) then 'ADDED'
+                       when exists (select 1 from deleted) then 'REMOVED'
+                       else 'UNCHANGED'
+                   end
+            """;
+
+    private static final String CREATE_YEAR_PARTITION =
+            "select create_completion_partition('subtask_completions', ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    SubtaskCompletionBulkOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public CompletionChange toggle(Integer subtaskId, LocalDate date) {
+        String change = jdbcTemplate.queryForObject(TOGGLE, String.class, subtaskId, date, subtaskId, date);
+        return CompletionChange.valueOf(change);
+    }
+
+    @Override
+    public List<SubtaskCompletionKey> insertIgnoringDuplicates(List<SubtaskCompletionKey> completions) {
+        return updateReturningKeys(INSERT_IGNORING_DUPLICATES, completions);
+    }
+
+    @Override
+    public List<SubtaskCompletionKey> deleteExisting(List<SubtaskCompletionKey> completions) {
+        return updateReturningKeys(DELETE_EXISTING, completions);
+    }
+
+    @Override
+    public boolean createYearPartition(int year) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(CREATE_YEAR_PARTITION, Boolean.class, year));
+    }
+
+    // Binds the keys as two parallel arrays and maps the returned (subtask_id, completed_date) rows
+    private List<SubtaskCompletionKey> updateReturningKeys(String sql, List<SubtaskCompletionKey> completions) {
+        if (completions.isEmpty()) return List.of();
+
+        Integer[] subtaskIds = new Integer[completions.size()];
+        String[] dates = new String[completions.size()];
+        for (int i = 0; i < completions.size(); i++) {
+            subtaskIds[i] = completions.get(i).subtaskId();
+            dates[i] = completions.get(i).completedDate().toString();
+        }
+
+        return jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(sql);
+                    ps.setArray(1, con.createArrayOf("integer", subtaskIds));
+                    ps.setArray(2, con.createArrayOf("text", dates));
+                    return ps;
+                },
+                (rs, rowNum) -> new SubtaskCompletionKey(
+                        rs.getInt("subtask_id"),
+                        rs.getDate("completed_date").toLocalDate()
+                )
+        );
+    }
+}
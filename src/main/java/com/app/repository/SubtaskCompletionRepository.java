@@ -7,12 +7,16 @@ import com.app.model.Subtask;
 import com.app.model.Task;
 import com.app.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
-public interface SubtaskCompletionRepository extends JpaRepository<SubtaskCompletions, Integer> {
+public interface SubtaskCompletionRepository extends JpaRepository<SubtaskCompletions, Integer>,
+        SubtaskCompletionBulkOperations {
 
     List<SubtaskCompletions> findBySubtask(Subtask subtask);
 
@@ -22,7 +26,24 @@ public interface SubtaskCompletionRepository extends JpaRepository<SubtaskComple
 
     Optional<SubtaskCompletions> findBySubtaskAndCompletedDate(Subtask subtask, LocalDate date);
 
-    void deleteBySubtask(Subtask subtask);
+    // Single-statement mark / undo; the update count says whether anything changed
+    @Modifying
+    @Query(value = """
+            insert into subtask_completions (subtask_id, completed_date, created_at)
+            values (:subtaskId, :date, now())
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("subtaskId") Integer subtaskId, @Param("date") LocalDate date);
+
+    @Modifying
+    @Query(value = "delete from subtask_completions where subtask_id = :subtaskId and completed_date = :date",
+            nativeQuery = true)
+    int deleteIfPresent(@Param("subtaskId") Integer subtaskId, @Param("date") LocalDate date);
+
+    // One statement; a derived delete would load every row and delete it by id across all partitions
+    @Modifying
+    @Query("delete from SubtaskCompletions sc where sc.subtask = :subtask")
+    void deleteBySubtask(@Param("subtask") Subtask subtask);
 
     List<SubtaskCompletions> findBySubtaskTaskUser(User user);
 
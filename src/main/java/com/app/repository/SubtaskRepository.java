@@ -3,12 +3,30 @@ package com.app.repository;
 import com.app.model.Subtask;
 import com.app.model.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 public interface SubtaskRepository extends JpaRepository<Subtask, Integer> {
     List<Subtask> findByTaskAndIsActiveTrueOrderByCreatedAtDesc(Task task);
 
     long countByTask(Task task);  // to check max 5 subtasks
 
+    // Ownership checked through the parent task's owner; the task comes back initialised
+    @Query("""
+            select st from Subtask st
+            join fetch st.task t
+            where st.id = :id and t.user.id = :userId
+            """)
+    Optional<Subtask> findByIdAndTaskUserId(@Param("id") Integer id, @Param("userId") UUID userId);
+
+    boolean existsByIdAndTaskUserId(Integer id, UUID userId);
+
+    @Query("select st.id from Subtask st where st.task.user.id = :userId and st.id in :ids")
+    List<Integer> findIdsByTaskUserIdAndIdIn(@Param("userId") UUID userId, @Param("ids") Collection<Integer> ids);
+
 }
@@ -0,0 +1,28 @@
+package com.app.repository;
+
+import com.app.enums.SyncKind;
+import com.app.repository.projection.CompletionKey;
+import com.app.repository.projection.SubtaskCompletionKey;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface SyncChangeBulkOperations {
+
+    /**
+     * Records tasks or subtasks as changed, or as deleted together with their
+     * completions, at the user's next version. One statement.
+     */
+    void recordEntities(UUID userId, SyncKind kind, Collection<Integer> ids, boolean deleted);
+
+    /**
+     * Records inserted ({@code added}) and deleted ({@code removed}) task
+     * completions at the user's next version. One statement.
+     */
+    void recordTaskCompletions(UUID userId, List<CompletionKey> added, List<CompletionKey> removed);
+
+    void recordSubtaskCompletions(UUID userId, List<SubtaskCompletionKey> added, List<SubtaskCompletionKey> removed);
+
+    void deleteUser(UUID userId);
+}
@@ -0,0 +1,136 @@
+package com.app.repository;
+
+import com.app.enums.SyncKind;
+import com.app.repository.projection.CompletionKey;
+import com.app.repository.projection.SubtaskCompletionKey;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+class SyncChangeBulkOperationsImpl implements SyncChangeBulkOperations {
+
+    // Takes the user's version row lock, held until commit (see V4__sync_changes.sql)
+    private static final String NEXT_VERSION = """
+            with next_version as (
+                insert into sync_versions (user_id, version)
+                values (?::uuid, 1)
+                on conflict (user_id) do update set version = sync_versions.version + 1
+                returning version
+            )""";
+
+    private static final String RECORD_ENTITIES = NEXT_VERSION + """
+            , purged as (
+                delete from sync_changes
+                where ?::boolean and kind = ? and entity_id = any(?::int[]) and completed_date is not null
+            )
+            insert into sync_changes (user_id, version, kind, entity_id, deleted)
+            select ?::uuid, v.version, ?, e.entity_id, ?::boolean
+            from next_version v, unnest(?::int[]) as e(entity_id)
+            order by e.entity_id
+            on conflict (kind, entity_id) where completed_date is null
+            do update set version = excluded.version, deleted = excluded.deleted, changed_at = excluded.changed_at
+            """;
+
+    private static final String RECORD_COMPLETIONS = NEXT_VERSION + """
+            insert into sync_changes (user_id, version, kind, entity_id, completed_date, deleted)
+            select ?::uuid, v.version, ?, c.entity_id, c.completed_date, c.deleted
+            from next_version v, unnest(?::int[], ?::date[], ?::boolean[]) as c(entity_id, completed_date, deleted)
+            order by c.entity_id, c.completed_date
+            on conflict (kind, entity_id, completed_date) where completed_date is not null
+            do update set version = excluded.version, deleted = excluded.deleted, changed_at = excluded.changed_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    SyncChangeBulkOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void recordEntities(UUID userId, SyncKind kind, Collection<Integer> ids, boolean deleted) {
+        if (ids.isEmpty()) return;
+
+        SyncKind completionKind = kind == SyncKind.TASK ? SyncKind.TASK_COMPLETION : SyncKind.SUBTASK_COMPLETION;
+        Integer[] entityIds = ids.toArray(Integer[]::new);
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(RECORD_ENTITIES);
+            ps.setString(1, userId.toString());
+            ps.setBoolean(2, deleted);
+            ps.setString(3, completionKind.name());
+            ps.setArray(4, con.createArrayOf("integer", entityIds));
+            ps.setString(5, userId.toString());
+            ps.setString(6, kind.name());
+            ps.setBoolean(7, deleted);
+            ps.setArray(8, con.createArrayOf("integer", entityIds));
+            return ps;
+        });
+    }
+
+    @Override
+    public void recordTaskCompletions(UUID userId, List<CompletionKey> added, List<CompletionKey> removed) {
+        int size = added.size() + removed.size();
+        Integer[] ids = new Integer[size];
+        String[] dates = new String[size];
+
+        int i = 0;
+        for (CompletionKey key : added) {
+            ids[i] = key.taskId();
+            dates[i++] = key.completedDate().toString();
+        }
+        for (CompletionKey key : removed) {
+            ids[i] = key.taskId();
+            dates[i++] = key.completedDate().toString();
+        }
+        recordCompletions(userId, SyncKind.TASK_COMPLETION, ids, dates, added.size());
+    }
+
+    @Override
+    public void recordSubtaskCompletions(UUID userId, List<SubtaskCompletionKey> added,
+                                         List<SubtaskCompletionKey> removed) {
+        int size = added.size() + removed.size();
+        Integer[] ids = new Integer[size];
+        String[] dates = new String[size];
+
+        int i = 0;
+        for (SubtaskCompletionKey key : added) {
+            ids[i] = key.subtaskId();
+            dates[i++] = key.completedDate().toString();
+        }
+        for (SubtaskCompletionKey key : removed) {
+            ids[i] = key.subtaskId();
+            dates[i++] = key.completedDate().toString();
+        }
+        recordCompletions(userId, SyncKind.SUBTASK_COMPLETION, ids, dates, added.size());
+    }
+
+    @Override
+    public void deleteUser(UUID userId) {
+        jdbcTemplate.update("delete from sync_changes where user_id = ?", userId);
+        jdbcTemplate.update("delete from sync_versions where user_id = ?", userId);
+    }
+
+    // The first addedCount keys were added, the rest removed
+    private void recordCompletions(UUID userId, SyncKind kind, Integer[] ids, String[] dates, int addedCount) {
+        if (ids.length == 0) return;
+
+        Boolean[] deleted = new Boolean[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            deleted[i] = i >= addedCount;
+        }
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(RECORD_COMPLETIONS);
+            ps.setString(1, userId.toString());
+            ps.setString(2, userId.toString());
+            ps.setString(3, kind.name());
+            ps.setArray(4, con.createArrayOf("integer", ids));
+            ps.setArray(5, con.createArrayOf("text", dates));
+            ps.setArray(6, con.createArrayOf("boolean", deleted));
+            return ps;
+        });
+    }
+}
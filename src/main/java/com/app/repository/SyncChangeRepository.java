@@ -0,0 +1,30 @@
+package com.app.repository;
+
+import com.app.model.SyncChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface SyncChangeRepository extends JpaRepository<SyncChange, Long>, SyncChangeBulkOperations {
+
+    // Keyset page after the (version, id) cursor
+    @Query(value = """
+            select * from sync_changes
+            where user_id = :userId and (version, id) > (:version, :id)
+            order by version, id
+            limit :limit
+            """, nativeQuery = true)
+    List<SyncChange> findPage(@Param("userId") UUID userId,
+                              @Param("version") long version,
+                              @Param("id") long id,
+                              @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from sync_changes where deleted and changed_at < :cutoff", nativeQuery = true)
+    int deleteTombstonesChangedBefore(@Param("cutoff") Instant cutoff);
+}
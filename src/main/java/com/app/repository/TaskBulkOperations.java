@@ -0,0 +1,15 @@
+package com.app.repository;
+
+import com.app.model.Task;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TaskBulkOperations {
+
+    /**
+     * Inserts the tasks in one statement. Ids are drawn from the tasks sequence
+     * up front and assigned to the given instances, in order.
+     */
+    void insertAll(UUID userId, List<Task> tasks);
+}
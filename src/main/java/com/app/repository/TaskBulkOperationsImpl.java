@@ -0,0 +1,62 @@
+package com.app.repository;
+
+import com.app.model.Task;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.UUID;
+
+class TaskBulkOperationsImpl implements TaskBulkOperations {
+
+    private static final String RESERVE_IDS = """
+            select nextval(pg_get_serial_sequence('tasks', 'id'))
+            from generate_series(1, ?)
+            """;
+
+    private static final String INSERT_ALL = """
+            insert into tasks (id, user_id, title, created_at, is_active, has_subtasks)
+            select t.id, ?::uuid, t.title, t.created_at, t.is_active, t.has_subtasks
+            from unnest(?::int[], ?::text[], ?::timestamptz[], ?::boolean[], ?::boolean[])
+                 as t(id, title, created_at, is_active, has_subtasks)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    TaskBulkOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(UUID userId, List<Task> tasks) {
+        if (tasks.isEmpty()) return;
+
+        List<Integer> ids = jdbcTemplate.queryForList(RESERVE_IDS, Integer.class, tasks.size());
+
+        Integer[] taskIds = ids.toArray(Integer[]::new);
+        String[] titles = new String[tasks.size()];
+        String[] createdAt = new String[tasks.size()];
+        Boolean[] isActive = new Boolean[tasks.size()];
+        Boolean[] hasSubtasks = new Boolean[tasks.size()];
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            task.setId(taskIds[i]);
+            titles[i] = task.getTitle();
+            createdAt[i] = task.getCreatedAt() == null ? null : task.getCreatedAt().toString();
+            isActive[i] = task.getIsActive();
+            hasSubtasks[i] = task.getHasSubtasks();
+        }
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_ALL);
+            ps.setString(1, userId.toString());
+            ps.setArray(2, con.createArrayOf("integer", taskIds));
+            ps.setArray(3, con.createArrayOf("text", titles));
+            ps.setArray(4, con.createArrayOf("text", createdAt));
+            ps.setArray(5, con.createArrayOf("boolean", isActive));
+            ps.setArray(6, con.createArrayOf("boolean", hasSubtasks));
+            return ps;
+        });
+    }
+}
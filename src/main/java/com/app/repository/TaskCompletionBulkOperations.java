@@ -0,0 +1,51 @@
+package com.app.repository;
+
+import com.app.enums.CompletionChange;
+import com.app.repository.projection.CompletionDays;
+import com.app.repository.projection.CompletionKey;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface TaskCompletionBulkOperations {
+
+    /**
+     * Inserts all given completions in one statement, skipping any that already
+     * exist, and returns only the rows that were actually inserted.
+     */
+    List<CompletionKey> insertIgnoringDuplicates(List<CompletionKey> completions);
+
+    /**
+     * Deletes all given completions in one statement and returns the ones that existed.
+     */
+    List<CompletionKey> deleteExisting(List<CompletionKey> completions);
+
+    /**
+     * Deletes the completion if it exists, otherwise inserts it, in one statement.
+     * {@code UNCHANGED} means a concurrent request inserted the same completion.
+     */
+    CompletionChange toggle(Integer taskId, LocalDate date);
+
+    /**
+     * All of the user's completions as (taskId, epochDay) pairs, ordered by
+     * task and then day, without materialising entities.
+     */
+    CompletionDays findCompletionDaysByUserId(UUID userId);
+
+    /**
+     * Same as {@link #findCompletionDaysByUserId} restricted to {@code [start, end]}.
+     */
+    CompletionDays findCompletionDaysByUserIdAndCompletedDateBetween(UUID userId, LocalDate start, LocalDate end);
+
+    /**
+     * Completed days of one task as ascending epoch days.
+     */
+    int[] findEpochDaysByTaskId(Integer taskId);
+
+    /**
+     * Creates the yearly partition for {@code year} unless it exists, moving
+     * that year's rows out of the default partition. Returns whether it was created.
+     */
+    boolean createYearPartition(int year);
+}
@@ -0,0 +1,171 @@
+package com.app.repository;
+
+import com.app.enums.CompletionChange;
+import com.app.repository.projection.CompletionDays;
+import com.app.repository.projection.CompletionKey;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+class TaskCompletionBulkOperationsImpl implements TaskCompletionBulkOperations {
+
+    private static final String INSERT_IGNORING_DUPLICATES = """
+            insert into task_completions (task_id, completed_date, created_at)
+            select c.task_id, c.completed_date, now()
+            from unnest(?::int[], ?::date[]) as c(task_id, completed_date)
+            on conflict do nothing
+            returning task_id, completed_date
+            """;
+
+    private static final String DELETE_EXISTING = """
+            delete from task_completions tc
+            using unnest(?::int[], ?::date[]) as c(task_id, completed_date)
+            where tc.task_id = c.task_id and tc.completed_date = c.completed_date
+            returning tc.task_id, tc.completed_date
+            """;
+
+    private static final String TOGGLE = """
+            with deleted as (
+                delete from task_completions
+                where task_id = ?::int and completed_date = ?::date
+                returning 1
+            ), inserted as (
+                insert into task_completions (task_id, completed_date, created_at)
+                select ?::int, ?::date, now()
+                where not exists (select 1 from deleted)
+                on conflict do nothing
+                returning 1
+            )
+            select case
+                       when exists (select 1 from inserted) then 'ADDED'
+                       when exists (select 1 from deleted) then 'REMOVED'
+                       else 'UNCHANGED'
+                   end
+            """;
+
+    private static final String COMPLETION_DAYS_BY_USER = """
+            select tc.task_id, tc.completed_date - date '1970-01-01' as epoch_day
+            from task_completions tc
+            join tasks t on t.id = tc.task_id
+            where t.user_id = ?
+            order by tc.task_id, tc.completed_date
+            """;
+
+    private static final String COMPLETION_DAYS_BY_USER_BETWEEN = """
+            select tc.task_id, tc.completed_date - date '1970-01-01' as epoch_day
+            from task_completions tc
+            join tasks t on t.id = tc.task_id
+            where t.user_id = ? and tc.completed_date between ? and ?
+            order by tc.task_id, tc.completed_date
+            """;
+
+    private static final String EPOCH_DAYS_BY_TASK = """
+            select completed_date - date '1970-01-01'
+            from task_completions
+            where task_id = ?
+            order by completed_date
+            """;
+
+    private static final String CREATE_YEAR_PARTITION =
+            "select create_completion_partition('task_completions', ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    TaskCompletionBulkOperationsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<CompletionKey> insertIgnoringDuplicates(List<CompletionKey> completions) {
+        return updateReturningKeys(INSERT_IGNORING_DUPLICATES, completions);
+    }
+
+    @Override
+    public List<CompletionKey> deleteExisting(List<CompletionKey> completions) {
+        return updateReturningKeys(DELETE_EXISTING, completions);
+    }
+
+    @Override
+    public CompletionChange toggle(Integer taskId, LocalDate date) {
+        String change = jdbcTemplate.queryForObject(TOGGLE, String.class, taskId, date, taskId, date);
+        return CompletionChange.valueOf(change);
+    }
+
+    @Override
+    public CompletionDays findCompletionDaysByUserId(UUID userId) {
+        return queryCompletionDays(COMPLETION_DAYS_BY_USER, userId);
+    }
+
+    @Override
+    public CompletionDays findCompletionDaysByUserIdAndCompletedDateBetween(UUID userId,
+                                                                            LocalDate start,
+                                                                            LocalDate end) {
+        return queryCompletionDays(COMPLETION_DAYS_BY_USER_BETWEEN, userId, start, end);
+    }
+
+    @Override
+    public int[] findEpochDaysByTaskId(Integer taskId) {
+        int[][] days = {new int[256]};
+        int[] size = {0};
+
+        jdbcTemplate.query(EPOCH_DAYS_BY_TASK, rs -> {
+            int i = size[0]++;
+            if (i == days[0].length) days[0] = Arrays.copyOf(days[0], i * 2);
+            days[0][i] = rs.getInt(1);
+        }, taskId);
+
+        return Arrays.copyOf(days[0], size[0]);
+    }
+
+    // Reads (task_id, epoch_day) rows straight into growing int arrays
+    private CompletionDays queryCompletionDays(String sql, Object... args) {
+        int[][] columns = {new int[1024], new int[1024]};
+        int[] size = {0};
+
+        jdbcTemplate.query(sql, rs -> {
+            int i = size[0]++;
+            if (i == columns[0].length) {
+                columns[0] = Arrays.copyOf(columns[0], i * 2);
+                columns[1] = Arrays.copyOf(columns[1], i * 2);
+            }
+            columns[0][i] = rs.getInt(1);
+            columns[1][i] = rs.getInt(2);
+        }, args);
+
+        return new CompletionDays(columns[0], columns[1], size[0]);
+    }
+
+    @Override
+    public boolean createYearPartition(int year) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(CREATE_YEAR_PARTITION, Boolean.class, year));
+    }
+
+    // Binds the keys as two parallel arrays and maps the returned (task_id, completed_date) rows
+    private List<CompletionKey> updateReturningKeys(String sql, List<CompletionKey> completions) {
+        if (completions.isEmpty()) return List.of();
+
+        Integer[] taskIds = new Integer[completions.size()];
+        String[] dates = new String[completions.size()];
+        for (int i = 0; i < completions.size(); i++) {
+            taskIds[i] = completions.get(i).taskId();
+            dates[i] = completions.get(i).completedDate().toString();
+        }
+
+        return jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(sql);
+                    ps.setArray(1, con.createArrayOf("integer", taskIds));
+                    ps.setArray(2, con.createArrayOf("text", dates));
+                    return ps;
+                },
+                (rs, rowNum) -> new CompletionKey(
+                        rs.getInt("task_id"),
+                        rs.getDate("completed_date").toLocalDate()
+                )
+        );
+    }
+}
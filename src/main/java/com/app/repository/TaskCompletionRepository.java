@@ -5,31 +5,39 @@ package com.app.repository;
 import com.app.model.TaskCompletions;
 import com.app.model.Task;
 import com.app.model.User;
+import com.app.repository.projection.TaskCompletionExportRow;
+import com.app.repository.projection.TaskCompletionCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
-
-public interface TaskCompletionRepository extends JpaRepository<TaskCompletions, Integer> {
-
-    List<TaskCompletions> findByTaskAndCompletedDateBetween(Task task, LocalDate start, LocalDate end);
+import java.util.stream.Stream;
 
-    List<TaskCompletions> findByTaskOrderByCompletedDateDesc(Task task);
+public interface TaskCompletionRepository extends JpaRepository<TaskCompletions, Integer>,
+        TaskCompletionBulkOperations {
 
-    List<TaskCompletions> findByTask(Task task);
+    String EXPORT_FETCH_SIZE = "1000";
 
-    boolean existsByTaskAndCompletedDate(Task task, LocalDate date);
+    // Single-statement mark / undo; the update count says whether anything changed
+    @Modifying
+    @Query(value = """
+            insert into task_completions (task_id, completed_date, created_at)
+            values (:taskId, :date, now())
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("taskId") Integer taskId, @Param("date") LocalDate date);
 
-    Optional<TaskCompletions> findByTaskAndCompletedDate(Task task, LocalDate date);
-
-    long countByTaskAndCompletedDateBetween(
-            Task task,
-            LocalDate start,
-            LocalDate end
-    );
-
-    long countByTask(Task task);
+    @Modifying
+    @Query(value = "delete from task_completions where task_id = :taskId and completed_date = :date",
+            nativeQuery = true)
+    int deleteIfPresent(@Param("taskId") Integer taskId, @Param("date") LocalDate date);
 
 //    // For specific task
 //    List<TaskCompletions> findByTaskAndCompletedDateBetween(
@@ -38,18 +46,37 @@ public interface TaskCompletionRepository extends JpaRepository<TaskCompletions,
 //            LocalDate end
 //    );
 
-    // For all user tasks
-    List<TaskCompletions> findByTaskUserAndCompletedDateBetween(
-            User user,
-            LocalDate start,
-            LocalDate end
+    // One statement; a derived delete would load every row and delete it by id across all partitions
+    @Modifying
+    @Query("delete from TaskCompletions tc where tc.task = :task")
+    void deleteByTask(@Param("task") Task task);
+
+    // Cursor-backed export rows; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.app.repository.projection.TaskCompletionExportRow(
+                   tc.id, tc.task.id, tc.completedDate, tc.createdAt)
+            from TaskCompletions tc
+            where tc.task.user = :user
+            order by tc.id
+            """)
+    Stream<TaskCompletionExportRow> streamExportRowsByUser(@Param("user") User user);
+
+    // Completions per task in [start, end]; tasks without any are omitted
+    @Query("""
+            select tc.task.id as taskId, count(tc.id) as completedDays
+            from TaskCompletions tc
+            where tc.task.id in :taskIds and tc.completedDate between :start and :end
+            group by tc.task.id
+            """)
+    List<TaskCompletionCount> countByTaskIdInAndCompletedDateBetween(
+            @Param("taskIds") Collection<Integer> taskIds,
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end
     );
 
-    void deleteByTask(Task task);
-
-    List<TaskCompletions> findByTaskUser(User user);
-
-    long countByTaskUser(User user);
-
 
 }
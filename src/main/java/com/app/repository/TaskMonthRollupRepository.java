@@ -0,0 +1,44 @@
+package com.app.repository;
+
+import com.app.model.TaskMonthRollup;
+import com.app.repository.projection.TaskCompletionCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskMonthRollupRepository extends JpaRepository<TaskMonthRollup, TaskMonthRollup.Key>,
+        CompletionRollupBulkOperations {
+
+    List<TaskMonthRollup> findByTaskIdInAndMonthStartBetween(
+            Collection<Integer> taskIds,
+            LocalDate fromMonth,
+            LocalDate toMonth
+    );
+
+    @Query("""
+            select r.taskId as taskId, sum(r.completedDays) as completedDays
+            from TaskMonthRollup r
+            where r.taskId in :taskIds
+            group by r.taskId
+            """)
+    List<TaskCompletionCount> sumByTaskIdIn(@Param("taskIds") Collection<Integer> taskIds);
+
+    // Adds delta (+1 / -1) to the task's count for the month containing date
+    @Modifying
+    @Query(value = """
+            insert into task_month_rollups (task_id, month_start, completed_days)
+            values (:taskId, cast(date_trunc('month', cast(:date as date)) as date), :delta)
+            on conflict (task_id, month_start)
+            do update set completed_days = task_month_rollups.completed_days + excluded.completed_days
+            """, nativeQuery = true)
+    void add(@Param("taskId") Integer taskId, @Param("date") LocalDate date, @Param("delta") int delta);
+
+    @Modifying
+    @Query("delete from TaskMonthRollup r where r.taskId in :taskIds")
+    void deleteByTaskIdIn(@Param("taskIds") Collection<Integer> taskIds);
+}
@@ -3,15 +3,48 @@ package com.app.repository;
 
 import com.app.model.Task;
 import com.app.model.User;
+import com.app.repository.projection.TaskExportRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends JpaRepository<Task, Integer> {
+public interface TaskRepository extends JpaRepository<Task, Integer>, TaskBulkOperations {
     List<Task> findByUserAndIsActiveTrueOrderByCreatedAtDesc(User user);
 
     List<Task> findByUserAndIsActiveTrue(User user);
 
+    List<Task> findByUserAndIsActiveTrueOrderById(User user);
+
     List<Task> findByUser(User user);
 
+    // Ownership-checked lookups: one query on (id, user_id), no proxy initialisation
+    Optional<Task> findByIdAndUserId(Integer id, UUID userId);
+
+    boolean existsByIdAndUserId(Integer id, UUID userId);
+
+    @Query("select t.id from Task t where t.user = :user and t.id in :ids")
+    List<Integer> findIdsByUserAndIdIn(@Param("user") User user, @Param("ids") Collection<Integer> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TaskCompletionRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.app.repository.projection.TaskExportRow(
+                   t.id, t.title, t.createdAt, t.isActive, t.hasSubtasks)
+            from Task t
+            where t.user = :user
+            order by t.id
+            """)
+    Stream<TaskExportRow> streamExportRowsByUser(@Param("user") User user);
+
 }
@@ -0,0 +1,30 @@
+package com.app.repository;
+
+import com.app.model.TaskStreak;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface TaskStreakRepository extends JpaRepository<TaskStreak, Integer> {
+
+    // Serialises concurrent incremental updates of the same task's summary
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select ts from TaskStreak ts where ts.taskId = :taskId")
+    Optional<TaskStreak> findForUpdate(@Param("taskId") Integer taskId);
+
+    // Backfill that tolerates a concurrent request having inserted the same summary; 0 when it had
+    @Modifying
+    @Query(value = """
+            insert into task_streaks (task_id, current_streak, current_from, current_to,
+                                      best_streak, best_from, best_to, last_completed_date, updated_at)
+            values (:#{#s.taskId}, :#{#s.currentStreak}, :#{#s.currentFrom}, :#{#s.currentTo},
+                    :#{#s.bestStreak}, :#{#s.bestFrom}, :#{#s.bestTo}, :#{#s.lastCompletedDate}, :#{#s.updatedAt})
+            on conflict (task_id) do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("s") TaskStreak streak);
+}
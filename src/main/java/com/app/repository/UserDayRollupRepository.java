@@ -0,0 +1,54 @@
+package com.app.repository;
+
+import com.app.model.UserDayRollup;
+import com.app.repository.projection.MonthCompletionCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface UserDayRollupRepository extends JpaRepository<UserDayRollup, UserDayRollup.Key> {
+
+    @Query("""
+            select extract(month from r.completedDate) as month,
+                   sum(r.completedTasks) as completedDays
+            from UserDayRollup r
+            where r.userId = :userId and r.completedDate between :start and :end
+            group by extract(month from r.completedDate)
+            """)
+    List<MonthCompletionCount> sumMonthlyByUserId(
+            @Param("userId") UUID userId,
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end
+    );
+
+    // Adds delta (+1 / -1) to the user's count for date
+    @Modifying
+    @Query(value = """
+            insert into user_day_rollups (user_id, completed_date, completed_tasks)
+            values (:userId, :date, :delta)
+            on conflict (user_id, completed_date)
+            do update set completed_tasks = user_day_rollups.completed_tasks + excluded.completed_tasks
+            """, nativeQuery = true)
+    void add(@Param("userId") UUID userId, @Param("date") LocalDate date, @Param("delta") int delta);
+
+    // Takes a task's completions out of its owner's daily counts; run before deleting them
+    @Modifying
+    @Query(value = """
+            update user_day_rollups r
+            set completed_tasks = r.completed_tasks - 1
+            from task_completions tc
+            where tc.task_id = :taskId
+              and r.user_id = :userId
+              and r.completed_date = tc.completed_date
+            """, nativeQuery = true)
+    void subtractTask(@Param("userId") UUID userId, @Param("taskId") Integer taskId);
+
+    @Modifying
+    @Query("delete from UserDayRollup r where r.userId = :userId")
+    void deleteByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,52 @@
+package com.app.repository.projection;
+
+/**
+ * Read-only (taskId, epochDay) completion pairs held in parallel primitive
+ * arrays, in the order the query returned them.
+ */
+public final class CompletionDays {
+
+    private final int[] taskIds;
+    private final int[] epochDays;
+    private final int size;
+    private final int minDay;
+    private final int maxDay;
+
+    public CompletionDays(int[] taskIds, int[] epochDays, int size) {
+        this.taskIds = taskIds;
+        this.epochDays = epochDays;
+        this.size = size;
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, epochDays[i]);
+            max = Math.max(max, epochDays[i]);
+        }
+        this.minDay = min;
+        this.maxDay = max;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int taskId(int i) {
+        return taskIds[i];
+    }
+
+    public int epochDay(int i) {
+        return epochDays[i];
+    }
+
+    /**
+     * Earliest day present; only meaningful when {@link #size()} is not zero.
+     */
+    public int minDay() {
+        return minDay;
+    }
+
+    public int maxDay() {
+        return maxDay;
+    }
+}
@@ -0,0 +1,8 @@
+package com.app.repository.projection;
+
+import java.time.LocalDate;
+
+public record CompletionKey(
+        Integer taskId,
+        LocalDate completedDate
+) {}
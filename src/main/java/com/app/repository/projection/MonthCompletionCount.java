@@ -0,0 +1,8 @@
+package com.app.repository.projection;
+
+public interface MonthCompletionCount {
+
+    Integer getMonth();
+
+    Long getCompletedDays();
+}
@@ -0,0 +1,8 @@
+package com.app.repository.projection;
+
+import java.time.LocalDate;
+
+public record SubtaskCompletionKey(
+        Integer subtaskId,
+        LocalDate completedDate
+) {}
@@ -0,0 +1,8 @@
+package com.app.repository.projection;
+
+public interface TaskCompletionCount {
+
+    Integer getTaskId();
+
+    Long getCompletedDays();
+}
@@ -0,0 +1,11 @@
+package com.app.repository.projection;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record TaskCompletionExportRow(
+        Integer id,
+        Integer taskId,
+        LocalDate completedDate,
+        Instant createdAt
+) {}
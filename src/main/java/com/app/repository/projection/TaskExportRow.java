@@ -0,0 +1,11 @@
+package com.app.repository.projection;
+
+import java.time.Instant;
+
+public record TaskExportRow(
+        Integer id,
+        String title,
+        Instant createdAt,
+        Boolean isActive,
+        Boolean hasSubtasks
+) {}
@@ -19,13 +19,28 @@ public class AuthService {
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
     private final TaskCompletionRepository completionRepository;
+    private final TaskCompletionIndex completionIndex;
+    private final TaskStreakService streakService;
+    private final CompletionRollupService rollupService;
+    private final CurrentUserResolver currentUserResolver;
+    private final SyncService syncService;
 
     public AuthService(UserRepository userRepository,
                        TaskRepository taskRepository,
-                       TaskCompletionRepository completionRepository) {
+                       TaskCompletionRepository completionRepository,
+                       TaskCompletionIndex completionIndex,
+                       TaskStreakService streakService,
+                       CompletionRollupService rollupService,
+                       CurrentUserResolver currentUserResolver,
+                       SyncService syncService) {
         this.userRepository = userRepository;
         this.taskRepository = taskRepository;
         this.completionRepository = completionRepository;
+        this.completionIndex = completionIndex;
+        this.streakService = streakService;
+        this.rollupService = rollupService;
+        this.currentUserResolver = currentUserResolver;
+        this.syncService = syncService;
     }
 
     @Transactional
@@ -37,14 +52,23 @@ public class AuthService {
                         .orElseThrow(() -> new RuntimeException("User not found"))
         );
 
+        List<Integer> taskIds = tasks.stream().map(Task::getId).toList();
+        rollupService.deleteUser(userId, taskIds);
+
         // Step 2: Delete all task completions of these tasks
         tasks.forEach(task -> completionRepository.deleteByTask(task));
 
         // Step 3: Delete all tasks
         taskRepository.deleteAll(tasks);
 
+        completionIndex.evictAll(taskIds);
+        streakService.invalidate(taskIds);
+
+        syncService.deleteUser(userId);
+
         // Step 4: Delete user
         userRepository.deleteById(userId);
+        currentUserResolver.evict(userId);
     }
 
     public UserProfileResponse getCurrentUserProfile() {
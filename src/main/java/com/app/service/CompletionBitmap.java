@@ -0,0 +1,333 @@
+package com.app.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable one-bit-per-day set of completion dates for a single task.
+ * <p>
+ * Bit 0 is {@code originDay} (an epoch day aligned to 64), so range counts are
+ * popcounts over a handful of words. Updates return a new instance, which lets
+ * readers use a bitmap without locking.
+ */
+public final class CompletionBitmap {
+
+    private static final CompletionBitmap EMPTY = new CompletionBitmap(0, new long[0], 0);
+
+    // Window of completion dates writes accept, which bounds a bitmap to about
+    // 4.6 KB; the day ahead covers clients in a time zone ahead of the server
+    static final int MAX_YEARS_BACK = 100;
+    static final int MAX_DAYS_AHEAD = 1;
+
+    private final long originDay;
+    private final long[] words;
+    private final int cardinality;
+
+    private CompletionBitmap(long originDay, long[] words, int cardinality) {
+        this.originDay = originDay;
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    public static CompletionBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Whether {@code date} may be recorded as a completion, as of {@code today}.
+     */
+    public static boolean accepts(LocalDate date, LocalDate today) {
+        return !date.isBefore(today.minusYears(MAX_YEARS_BACK)) && !date.isAfter(today.plusDays(MAX_DAYS_AHEAD));
+    }
+
+    /**
+     * Rejects a single-day task or subtask write whose date {@link #accepts} refuses today.
+     */
+    static void requireAccepted(LocalDate date) {
+        if (!accepts(date, LocalDate.now())) {
+            throw new IllegalArgumentException("Date out of range");
+        }
+    }
+
+    public static CompletionBitmap of(Collection<LocalDate> dates) {
+        if (dates.isEmpty()) return EMPTY;
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (LocalDate date : dates) {
+            long day = date.toEpochDay();
+            min = Math.min(min, day);
+            max = Math.max(max, day);
+        }
+
+        long origin = alignDown(min);
+        long[] words = new long[(int) ((max - origin) >>> 6) + 1];
+        for (LocalDate date : dates) {
+            long offset = date.toEpochDay() - origin;
+            words[(int) (offset >>> 6)] |= 1L << offset;
+        }
+
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        return new CompletionBitmap(origin, words, cardinality);
+    }
+
+    /**
+     * Builds a bitmap from distinct epoch days in ascending order.
+     */
+    public static CompletionBitmap ofEpochDays(int[] days) {
+        if (days.length == 0) return EMPTY;
+
+        long origin = alignDown(days[0]);
+        long[] words = new long[(int) ((days[days.length - 1] - origin) >>> 6) + 1];
+        for (int day : days) {
+            long offset = day - origin;
+            words[(int) (offset >>> 6)] |= 1L << offset;
+        }
+        return new CompletionBitmap(origin, words, days.length);
+    }
+
+    public boolean contains(LocalDate date) {
+        long offset = date.toEpochDay() - originDay;
+        if (offset < 0 || offset >= capacity()) return false;
+        return (words[(int) (offset >>> 6)] & (1L << offset)) != 0;
+    }
+
+    public CompletionBitmap with(LocalDate date) {
+        if (contains(date)) return this;
+
+        long day = date.toEpochDay();
+        long dayWord = alignDown(day);
+        long[] grown;
+        long origin;
+
+        if (words.length == 0) {
+            origin = dayWord;
+            grown = new long[1];
+        } else {
+            origin = Math.min(originDay, dayWord);
+            long end = Math.max(originDay + capacity(), dayWord + 64);
+            grown = new long[(int) ((end - origin) >>> 6)];
+            System.arraycopy(words, 0, grown, (int) ((originDay - origin) >>> 6), words.length);
+        }
+
+        long offset = day - origin;
+        grown[(int) (offset >>> 6)] |= 1L << offset;
+        return new CompletionBitmap(origin, grown, cardinality + 1);
+    }
+
+    public CompletionBitmap without(LocalDate date) {
+        if (!contains(date)) return this;
+
+        long offset = date.toEpochDay() - originDay;
+        long[] copy = words.clone();
+        copy[(int) (offset >>> 6)] &= ~(1L << offset);
+        return new CompletionBitmap(originDay, copy, cardinality - 1);
+    }
+
+    public int count() {
+        return cardinality;
+    }
+
+    /**
+     * Number of completed days in {@code [from, to]}, both inclusive.
+     */
+    public int count(LocalDate from, LocalDate to) {
+        long lo = Math.max(from.toEpochDay() - originDay, 0);
+        long hi = Math.min(to.toEpochDay() - originDay, capacity() - 1);
+        if (lo > hi) return 0;
+
+        int loWord = (int) (lo >>> 6);
+        int hiWord = (int) (hi >>> 6);
+        long loMask = -1L << lo;
+        long hiMask = -1L >>> (63 - (hi & 63));
+
+        if (loWord == hiWord) {
+            return Long.bitCount(words[loWord] & loMask & hiMask);
+        }
+
+        int count = Long.bitCount(words[loWord] & loMask);
+        for (int i = loWord + 1; i < hiWord; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count + Long.bitCount(words[hiWord] & hiMask);
+    }
+
+    /**
+     * Completed days in {@code [from, to]} (both inclusive), oldest first.
+     */
+    public List<LocalDate> dates(LocalDate from, LocalDate to) {
+        long lo = Math.max(from.toEpochDay() - originDay, 0);
+        long hi = Math.min(to.toEpochDay() - originDay, capacity() - 1);
+        if (lo > hi) return List.of();
+
+        List<LocalDate> dates = new ArrayList<>();
+        int loWord = (int) (lo >>> 6);
+        int hiWord = (int) (hi >>> 6);
+
+        for (int i = loWord; i <= hiWord; i++) {
+            long word = words[i];
+            if (i == loWord) word &= -1L << lo;
+            if (i == hiWord) word &= -1L >>> (63 - (hi & 63));
+
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                dates.add(LocalDate.ofEpochDay(originDay + ((long) i << 6) + bit));
+                word &= word - 1;
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Completed days in {@code [from, to]} (both inclusive) per day of week,
+     * indexed by {@link DayOfWeek#ordinal()}.
+     */
+    public long[] countByDayOfWeek(LocalDate from, LocalDate to) {
+        long[] counts = new long[7];
+        long lo = Math.max(from.toEpochDay() - originDay, 0);
+        long hi = Math.min(to.toEpochDay() - originDay, capacity() - 1);
+        if (lo > hi) return counts;
+
+        int loWord = (int) (lo >>> 6);
+        int hiWord = (int) (hi >>> 6);
+
+        for (int i = loWord; i <= hiWord; i++) {
+            long word = words[i];
+            if (i == loWord) word &= -1L << lo;
+            if (i == hiWord) word &= -1L >>> (63 - (hi & 63));
+
+            // Epoch day 0 (1970-01-01) was a Thursday
+            long wordStart = originDay + ((long) i << 6) + DayOfWeek.THURSDAY.ordinal();
+            while (word != 0) {
+                counts[(int) Math.floorMod(wordStart + Long.numberOfTrailingZeros(word), 7)]++;
+                word &= word - 1;
+            }
+        }
+        return counts;
+    }
+
+    public long[] countByDayOfWeek() {
+        if (cardinality == 0) return new long[7];
+        return countByDayOfWeek(LocalDate.ofEpochDay(originDay), LocalDate.ofEpochDay(originDay + capacity() - 1));
+    }
+
+    public List<LocalDate> dates() {
+        if (cardinality == 0) return List.of();
+        return dates(LocalDate.ofEpochDay(originDay), LocalDate.ofEpochDay(originDay + capacity() - 1));
+    }
+
+    /**
+     * Most recent completed day on or before {@code date}, or null if there is none.
+     */
+    public LocalDate lastOnOrBefore(LocalDate date) {
+        long offset = Math.min(date.toEpochDay() - originDay, capacity() - 1);
+        long bit = previousSetBit(offset);
+        return bit < 0 ? null : LocalDate.ofEpochDay(originDay + bit);
+    }
+
+    public LocalDate last() {
+        return cardinality == 0 ? null : lastOnOrBefore(LocalDate.ofEpochDay(originDay + capacity() - 1));
+    }
+
+    /**
+     * The run of consecutive completed days that includes {@code date}, or null
+     * if {@code date} itself is not completed.
+     */
+    public Run runContaining(LocalDate date) {
+        if (!contains(date)) return null;
+
+        long offset = date.toEpochDay() - originDay;
+        long from = previousClearBit(offset) + 1;
+        long to = nextClearBit(offset) - 1;
+        return new Run(LocalDate.ofEpochDay(originDay + from), LocalDate.ofEpochDay(originDay + to));
+    }
+
+    /**
+     * Longest run of consecutive completed days; ties go to the most recent run.
+     */
+    public Run bestRun() {
+        long bestFrom = -1;
+        long bestTo = -1;
+
+        long from = nextSetBit(0);
+        while (from >= 0) {
+            long to = nextClearBit(from) - 1;
+            if (bestFrom < 0 || to - from >= bestTo - bestFrom) {
+                bestFrom = from;
+                bestTo = to;
+            }
+            from = nextSetBit(to + 1);
+        }
+
+        return bestFrom < 0
+                ? null
+                : new Run(LocalDate.ofEpochDay(originDay + bestFrom), LocalDate.ofEpochDay(originDay + bestTo));
+    }
+
+    // Bit scans over offsets from originDay; -1 / capacity() mean "none"
+
+    private long nextSetBit(long from) {
+        if (from >= capacity()) return -1;
+        int i = (int) (from >>> 6);
+        long word = words[i] & (-1L << from);
+        while (word == 0) {
+            if (++i == words.length) return -1;
+            word = words[i];
+        }
+        return ((long) i << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    private long nextClearBit(long from) {
+        if (from >= capacity()) return capacity();
+        int i = (int) (from >>> 6);
+        long word = ~words[i] & (-1L << from);
+        while (word == 0) {
+            if (++i == words.length) return capacity();
+            word = ~words[i];
+        }
+        return ((long) i << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    private long previousSetBit(long from) {
+        if (from < 0) return -1;
+        int i = (int) (from >>> 6);
+        long word = words[i] & (-1L >>> (63 - (from & 63)));
+        while (word == 0) {
+            if (--i < 0) return -1;
+            word = words[i];
+        }
+        return ((long) i << 6) + 63 - Long.numberOfLeadingZeros(word);
+    }
+
+    private long previousClearBit(long from) {
+        if (from < 0) return -1;
+        int i = (int) (from >>> 6);
+        long word = ~words[i] & (-1L >>> (63 - (from & 63)));
+        while (word == 0) {
+            if (--i < 0) return -1;
+            word = ~words[i];
+        }
+        return ((long) i << 6) + 63 - Long.numberOfLeadingZeros(word);
+    }
+
+    private long capacity() {
+        return (long) words.length << 6;
+    }
+
+    private static long alignDown(long epochDay) {
+        return Math.floorDiv(epochDay, 64) * 64;
+    }
+
+    public record Run(LocalDate from, LocalDate to) {
+
+        public int days() {
+            return (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        }
+    }
+}
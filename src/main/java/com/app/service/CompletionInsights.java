@@ -0,0 +1,130 @@
+package com.app.service;
+
+import com.app.repository.projection.CompletionDays;
+
+import java.util.Arrays;
+
+/**
+ * User-level insight figures derived in one pass over completions ordered by
+ * (taskId, epochDay).
+ * <p>
+ * Per-task counts and runs are closed whenever the task id changes; perfect
+ * days are tallied in a per-day counter array covering the active tasks'
+ * completion range. Ties go to the lowest task id.
+ */
+final class CompletionInsights {
+
+    private long totalCompletions;
+    private int topTaskId = -1;
+    private long topTaskCount;
+    private int streakTaskId = -1;
+    private int bestStreak;
+    private long perfectDays;
+    private double consistencyPercentage;
+
+    private CompletionInsights() {
+    }
+
+    /**
+     * @param completions        the user's completions, ordered by task and then day
+     * @param activeTaskIds      ids of the user's active tasks
+     * @param activeCreatedDays  creation epoch day of each active task, parallel to {@code activeTaskIds}
+     * @param today              epoch day the consistency window ends on
+     */
+    static CompletionInsights compute(CompletionDays completions,
+                                      int[] activeTaskIds,
+                                      int[] activeCreatedDays,
+                                      int today) {
+        CompletionInsights insights = new CompletionInsights();
+        int n = completions.size();
+        insights.totalCompletions = n;
+
+        int[] active = activeTaskIds.clone();
+        Arrays.sort(active);
+
+        int[] perDay = n == 0 || active.length == 0
+                ? new int[0]
+                : new int[completions.maxDay() - completions.minDay() + 1];
+
+        int i = 0;
+        while (i < n) {
+            int taskId = completions.taskId(i);
+            boolean isActive = Arrays.binarySearch(active, taskId) >= 0;
+
+            int count = 0;
+            int run = 0;
+            int longestRun = 0;
+            int previousDay = Integer.MIN_VALUE;
+
+            for (; i < n && completions.taskId(i) == taskId; i++) {
+                int day = completions.epochDay(i);
+                count++;
+                run = day == previousDay + 1 ? run + 1 : 1;
+                longestRun = Math.max(longestRun, run);
+                previousDay = day;
+
+                if (isActive) {
+                    perDay[day - completions.minDay()]++;
+                }
+            }
+
+            if (count > insights.topTaskCount) {
+                insights.topTaskId = taskId;
+                insights.topTaskCount = count;
+            }
+            if (isActive && longestRun > insights.bestStreak) {
+                insights.streakTaskId = taskId;
+                insights.bestStreak = longestRun;
+            }
+        }
+
+        // A perfect day has a completion for every active task
+        for (int tasksDone : perDay) {
+            if (tasksDone == active.length) insights.perfectDays++;
+        }
+
+        long availableDays = 0;
+        for (int created : activeCreatedDays) {
+            availableDays += today - created + 1;
+        }
+        insights.consistencyPercentage = availableDays == 0
+                ? 0
+                : Math.round((n * 10000.0) / availableDays) / 100.0;
+
+        return insights;
+    }
+
+    long totalCompletions() {
+        return totalCompletions;
+    }
+
+    /**
+     * Task with the most completions (active or not), or -1 when there are none.
+     */
+    int topTaskId() {
+        return topTaskId;
+    }
+
+    long topTaskCount() {
+        return topTaskCount;
+    }
+
+    /**
+     * Active task with the longest run of consecutive days, or -1 when there is none.
+     */
+    int streakTaskId() {
+        return streakTaskId;
+    }
+
+    int bestStreak() {
+        return bestStreak;
+    }
+
+    long perfectDays() {
+        return perfectDays;
+    }
+
+    double consistencyPercentage() {
+        return consistencyPercentage;
+    }
+}
@@ -0,0 +1,50 @@
+package com.app.service;
+
+import com.app.repository.SubtaskCompletionRepository;
+import com.app.repository.TaskCompletionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Year;
+
+/**
+ * Keeps yearly partitions of {@code task_completions} and
+ * {@code subtask_completions} in place ahead of time.
+ * <p>
+ * Completions are range-partitioned on {@code completed_date} (see the V3
+ * migration). This year's and the next {@code yearsAhead} partitions are
+ * created at startup and by a monthly job, so current writes never land in
+ * the default partition.
+ */
+@Service
+public class CompletionPartitionService {
+
+    private final TaskCompletionRepository completionRepository;
+    private final SubtaskCompletionRepository subtaskCompletionRepository;
+    private final int yearsAhead;
+
+    public CompletionPartitionService(
+            TaskCompletionRepository completionRepository,
+            SubtaskCompletionRepository subtaskCompletionRepository,
+            @Value("${trackify.partitions.years-ahead:1}") int yearsAhead
+    ) {
+        this.completionRepository = completionRepository;
+        this.subtaskCompletionRepository = subtaskCompletionRepository;
+        this.yearsAhead = yearsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${trackify.partitions.maintenance-cron:0 0 4 1 * *}")
+    @Transactional
+    public void createUpcomingPartitions() {
+        int current = Year.now().getValue();
+        for (int year = current; year <= current + yearsAhead; year++) {
+            completionRepository.createYearPartition(year);
+            subtaskCompletionRepository.createYearPartition(year);
+        }
+    }
+}
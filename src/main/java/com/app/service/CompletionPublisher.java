@@ -0,0 +1,111 @@
+package com.app.service;
+
+import com.app.config.SecurityUtil;
+import com.app.config.WebSocketConfig;
+import com.app.dto.CompletionDelta;
+import com.app.repository.projection.CompletionKey;
+import com.app.repository.projection.SubtaskCompletionKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Pushes completion changes to every open WebSocket session of the current
+ * user, once the change commits, so other devices need not poll.
+ * <p>
+ * Deltas are built from the in-memory completion index (no queries), and not
+ * at all when the user has no open session.
+ */
+@Component
+public class CompletionPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(CompletionPublisher.class);
+
+    private static final String QUEUE = WebSocketConfig.COMPLETIONS_QUEUE.substring("/user".length());
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+    private final TaskCompletionIndex completionIndex;
+
+    public CompletionPublisher(SimpMessagingTemplate messagingTemplate,
+                               SimpUserRegistry userRegistry,
+                               TaskCompletionIndex completionIndex) {
+        this.messagingTemplate = messagingTemplate;
+        this.userRegistry = userRegistry;
+        this.completionIndex = completionIndex;
+    }
+
+    public void taskChanged(Integer taskId, LocalDate date, boolean completed) {
+        publish(() -> List.of(taskDelta(taskId, date, completed, LocalDate.now())));
+    }
+
+    public void tasksChanged(List<CompletionKey> added, List<CompletionKey> removed) {
+        if (added.isEmpty() && removed.isEmpty()) return;
+
+        publish(() -> {
+            LocalDate today = LocalDate.now();
+            List<CompletionDelta> deltas = new ArrayList<>(added.size() + removed.size());
+            added.forEach(key -> deltas.add(taskDelta(key.taskId(), key.completedDate(), true, today)));
+            removed.forEach(key -> deltas.add(taskDelta(key.taskId(), key.completedDate(), false, today)));
+            return deltas;
+        });
+    }
+
+    public void subtaskChanged(Integer subtaskId, LocalDate date, boolean completed) {
+        publish(() -> List.of(CompletionDelta.subtask(subtaskId, date, completed)));
+    }
+
+    public void subtasksChanged(List<SubtaskCompletionKey> added, List<SubtaskCompletionKey> removed) {
+        if (added.isEmpty() && removed.isEmpty()) return;
+
+        publish(() -> {
+            List<CompletionDelta> deltas = new ArrayList<>(added.size() + removed.size());
+            added.forEach(key -> deltas.add(CompletionDelta.subtask(key.subtaskId(), key.completedDate(), true)));
+            removed.forEach(key -> deltas.add(CompletionDelta.subtask(key.subtaskId(), key.completedDate(), false)));
+            return deltas;
+        });
+    }
+
+    // Current streak as of today, as GET /{taskId}/streak reports it
+    private CompletionDelta taskDelta(Integer taskId, LocalDate date, boolean completed, LocalDate today) {
+        CompletionBitmap completions = completionIndex.forTask(taskId);
+
+        CompletionBitmap.Run current = completions.runContaining(today);
+        CompletionBitmap.Run best = completions.bestRun();
+        YearMonth month = YearMonth.from(date);
+
+        return CompletionDelta.task(
+                taskId,
+                date,
+                completed,
+                current == null ? 0 : (int) (today.toEpochDay() - current.from().toEpochDay()) + 1,
+                best == null ? 0 : best.days(),
+                completions.count(month.atDay(1), month.atEndOfMonth())
+        );
+    }
+
+    // Registered after the index updates of the same transaction, so deltas see them.
+    // The change is committed by then: a failed push is logged, not thrown
+    private void publish(Supplier<List<CompletionDelta>> deltas) {
+        String email = SecurityUtil.getCurrentUserEmail();
+        Runnable send = () -> {
+            if (userRegistry.getUser(email) == null) return;
+            try {
+                messagingTemplate.convertAndSendToUser(email, QUEUE, deltas.get());
+            } catch (MessagingException ex) {
+                log.warn("Could not push completion changes to {}", email, ex);
+            }
+        };
+
+        AfterCommit.run(send);
+    }
+}
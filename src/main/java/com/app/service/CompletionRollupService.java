@@ -0,0 +1,187 @@
+package com.app.service;
+
+import com.app.model.TaskMonthRollup;
+import com.app.repository.TaskCompletionRepository;
+import com.app.repository.TaskMonthRollupRepository;
+import com.app.repository.UserDayRollupRepository;
+import com.app.repository.projection.CompletionKey;
+import com.app.repository.projection.MonthCompletionCount;
+import com.app.repository.projection.TaskCompletionCount;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-task monthly and per-user daily completion counts.
+ * <p>
+ * Every completion write adjusts the rollups in its own transaction, so chart
+ * reads are a handful of rows no matter how long the history is. Both tables
+ * are backfilled from {@code task_completions} the first time the application
+ * starts with existing data. Cached chart results computed from the changed
+ * rows are invalidated with them.
+ */
+@Service
+public class CompletionRollupService {
+
+    private final TaskMonthRollupRepository taskMonthRepository;
+    private final UserDayRollupRepository userDayRepository;
+    private final TaskCompletionRepository completionRepository;
+    private final GraphResultCache graphCache;
+
+    public CompletionRollupService(TaskMonthRollupRepository taskMonthRepository,
+                                   UserDayRollupRepository userDayRepository,
+                                   TaskCompletionRepository completionRepository,
+                                   GraphResultCache graphCache) {
+        this.taskMonthRepository = taskMonthRepository;
+        this.userDayRepository = userDayRepository;
+        this.completionRepository = completionRepository;
+        this.graphCache = graphCache;
+    }
+
+    // ===== WRITES (task month rows first, then user day rows) =====
+
+    @Transactional
+    public void recordCompleted(Integer taskId, UUID userId, LocalDate date) {
+        taskMonthRepository.add(taskId, date, 1);
+        userDayRepository.add(userId, date, 1);
+        graphCache.invalidateTask(userId, taskId);
+    }
+
+    @Transactional
+    public void recordUndone(Integer taskId, UUID userId, LocalDate date) {
+        taskMonthRepository.add(taskId, date, -1);
+        userDayRepository.add(userId, date, -1);
+        graphCache.invalidateTask(userId, taskId);
+    }
+
+    @Transactional
+    public void recordAdded(UUID userId, List<CompletionKey> inserted) {
+        taskMonthRepository.addAll(userId, inserted, List.of());
+        graphCache.invalidateTasks(userId, taskIds(inserted));
+    }
+
+    /**
+     * Applies a batch's inserts and deletes together, so concurrent batches lock
+     * rollup rows in one key order.
+     */
+    @Transactional
+    public void recordChanged(UUID userId, List<CompletionKey> inserted, List<CompletionKey> deleted) {
+        taskMonthRepository.addAll(userId, inserted, deleted);
+
+        Set<Integer> taskIds = taskIds(inserted);
+        taskIds.addAll(taskIds(deleted));
+        graphCache.invalidateTasks(userId, taskIds);
+    }
+
+    /**
+     * Removes a task's completions from the rollups; call before they are deleted.
+     */
+    @Transactional
+    public void deleteTask(Integer taskId, UUID userId) {
+        taskMonthRepository.deleteByTaskIdIn(List.of(taskId));
+        userDayRepository.subtractTask(userId, taskId);
+        graphCache.invalidateTask(userId, taskId);
+    }
+
+    @Transactional
+    public void deleteUser(UUID userId, Collection<Integer> taskIds) {
+        if (!taskIds.isEmpty()) {
+            taskMonthRepository.deleteByTaskIdIn(taskIds);
+        }
+        userDayRepository.deleteByUserId(userId);
+        graphCache.invalidateUser(userId);
+    }
+
+    // One-off: fills the rollups for completions written before they existed
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (taskMonthRepository.count() == 0 && completionRepository.count() > 0) {
+            taskMonthRepository.rebuildAll();
+        }
+    }
+
+    private static Set<Integer> taskIds(List<CompletionKey> keys) {
+        Set<Integer> taskIds = new HashSet<>();
+        keys.forEach(key -> taskIds.add(key.taskId()));
+        return taskIds;
+    }
+
+    // ===== READS =====
+
+    /**
+     * Completed days per task for each month in {@code [from, to]}, indexed from
+     * {@code from}. When {@code asOf} is given, days after it are not counted.
+     */
+    public Map<Integer, long[]> monthlyCounts(Collection<Integer> taskIds,
+                                              YearMonth from,
+                                              YearMonth to,
+                                              LocalDate asOf) {
+        Map<Integer, long[]> counts = new HashMap<>();
+        if (taskIds.isEmpty()) return counts;
+
+        int months = (int) ChronoUnit.MONTHS.between(from, to) + 1;
+        for (Integer taskId : taskIds) {
+            counts.put(taskId, new long[months]);
+        }
+
+        YearMonth last = to;
+        if (asOf != null) {
+            YearMonth asOfMonth = YearMonth.from(asOf);
+            if (asOfMonth.isBefore(from)) return counts;
+            if (asOfMonth.isBefore(to)) last = asOfMonth;
+        }
+
+        for (TaskMonthRollup row : taskMonthRepository.findByTaskIdInAndMonthStartBetween(
+                taskIds, from.atDay(1), last.atDay(1))) {
+            int slot = (int) ChronoUnit.MONTHS.between(from, YearMonth.from(row.getMonthStart()));
+            counts.get(row.getTaskId())[slot] = row.getCompletedDays();
+        }
+
+        // Rollups are whole months; take back completions later in asOf's month
+        if (asOf != null && YearMonth.from(asOf).equals(last) && !asOf.equals(last.atEndOfMonth())) {
+            int slot = (int) ChronoUnit.MONTHS.between(from, last);
+            for (TaskCompletionCount row : completionRepository.countByTaskIdInAndCompletedDateBetween(
+                    taskIds, asOf.plusDays(1), last.atEndOfMonth())) {
+                counts.get(row.getTaskId())[slot] -= row.getCompletedDays();
+            }
+        }
+
+        return counts;
+    }
+
+    public Map<Integer, Long> totalCounts(Collection<Integer> taskIds) {
+        Map<Integer, Long> totals = new HashMap<>();
+        if (taskIds.isEmpty()) return totals;
+
+        for (TaskCompletionCount row : taskMonthRepository.sumByTaskIdIn(taskIds)) {
+            totals.put(row.getTaskId(), row.getCompletedDays());
+        }
+        return totals;
+    }
+
+    /**
+     * Completions across all of the user's tasks per month of {@code year}, January first.
+     */
+    public long[] userMonthlyCounts(UUID userId, Year year) {
+        long[] counts = new long[12];
+        for (MonthCompletionCount row : userDayRepository.sumMonthlyByUserId(
+                userId, year.atDay(1), year.atMonth(12).atEndOfMonth())) {
+            counts[row.getMonth() - 1] = row.getCompletedDays();
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,123 @@
+package com.app.service;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Byte-level CSV writer for exports. Numbers and dates are encoded straight
+ * into the buffer so rows don't allocate formatted strings.
+ */
+final class CsvStreamWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final StringBuilder scratch = new StringBuilder(32);
+    private boolean firstColumn = true;
+
+    CsvStreamWriter(OutputStream target, boolean gzip) throws IOException {
+        OutputStream stream = gzip ? new GZIPOutputStream(target, BUFFER_SIZE) : target;
+        this.out = new BufferedOutputStream(stream, BUFFER_SIZE);
+    }
+
+    CsvStreamWriter header(String line) throws IOException {
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+        return endRow();
+    }
+
+    CsvStreamWriter value(Integer value) throws IOException {
+        separator();
+        if (value != null) writeInt(value);
+        return this;
+    }
+
+    CsvStreamWriter value(Boolean value) throws IOException {
+        separator();
+        if (value != null) writeAscii(value ? "true" : "false");
+        return this;
+    }
+
+    CsvStreamWriter value(LocalDate date) throws IOException {
+        separator();
+        if (date != null) {
+            writePadded(date.getYear(), 4);
+            out.write('-');
+            writePadded(date.getMonthValue(), 2);
+            out.write('-');
+            writePadded(date.getDayOfMonth(), 2);
+        }
+        return this;
+    }
+
+    CsvStreamWriter value(Instant instant) throws IOException {
+        separator();
+        if (instant != null) {
+            scratch.setLength(0);
+            DateTimeFormatter.ISO_INSTANT.formatTo(instant, scratch);
+            for (int i = 0; i < scratch.length(); i++) {
+                out.write(scratch.charAt(i));
+            }
+        }
+        return this;
+    }
+
+    CsvStreamWriter quoted(String value) throws IOException {
+        separator();
+        out.write('"');
+        if (value != null) {
+            out.write(value.replace("\"", "\"\"").getBytes(StandardCharsets.UTF_8));
+        }
+        out.write('"');
+        return this;
+    }
+
+    CsvStreamWriter endRow() throws IOException {
+        out.write('\n');
+        firstColumn = true;
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void separator() throws IOException {
+        if (!firstColumn) out.write(',');
+        firstColumn = false;
+    }
+
+    private void writeAscii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            out.write(value.charAt(i));
+        }
+    }
+
+    private void writeInt(int value) throws IOException {
+        if (value < 0) {
+            out.write('-');
+            writeDigits(-(long) value);
+        } else {
+            writeDigits(value);
+        }
+    }
+
+    private void writeDigits(long value) throws IOException {
+        if (value >= 10) writeDigits(value / 10);
+        out.write((int) ('0' + value % 10));
+    }
+
+    private void writePadded(int value, int width) throws IOException {
+        for (int limit = 10, digits = 1; digits < width; limit *= 10, digits++) {
+            if (value < limit) out.write('0');
+        }
+        writeDigits(value);
+    }
+}
@@ -0,0 +1,86 @@
+package com.app.service;
+
+import com.app.config.SecurityUtil;
+import com.app.model.User;
+import com.app.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Resolves the authenticated user without a {@code users} lookup per call.
+ * <p>
+ * Email to id mappings are memoised for the current request and cached
+ * (bounded, expiring after {@code ttl}) across requests. Callers get a lazy
+ * reference, so only code that reads other user fields loads the row.
+ */
+@Component
+public class CurrentUserResolver {
+
+    private static final String REQUEST_ATTRIBUTE = CurrentUserResolver.class.getName() + ".userId";
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final LruMap<String, CachedId> ids;
+
+    public CurrentUserResolver(
+            UserRepository userRepository,
+            @Value("${trackify.current-user-cache.max-entries:10000}") int maxEntries,
+            @Value("${trackify.current-user-cache.ttl:10m}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.ids = new LruMap<>(maxEntries);
+    }
+
+    public User currentUser() {
+        return userRepository.getReferenceById(currentUserId());
+    }
+
+    /**
+     * The fully loaded user, for callers that return it (e.g. as a task's owner).
+     */
+    public User loadCurrentUser() {
+        return userRepository.findById(currentUserId()).orElseThrow();
+    }
+
+    public UUID currentUserId() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null
+                && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof UUID id) {
+            return id;
+        }
+
+        UUID id = lookup(SecurityUtil.getCurrentUserEmail());
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, id, RequestAttributes.SCOPE_REQUEST);
+        }
+        return id;
+    }
+
+    /**
+     * Forgets the user once the surrounding transaction (if any) commits.
+     */
+    public void evict(UUID userId) {
+        AfterCommit.run(() -> ids.removeValuesIf(cached -> cached.id().equals(userId)));
+    }
+
+    private UUID lookup(String email) {
+        long now = System.nanoTime();
+        CachedId cached = ids.get(email);
+        if (cached != null && now - cached.loadedAt() < ttlNanos) {
+            return cached.id();
+        }
+
+        UUID id = userRepository.findByEmail(email).orElseThrow().getId();
+        ids.put(email, new CachedId(id, now));
+        return id;
+    }
+
+    private record CachedId(UUID id, long loadedAt) {
+    }
+}
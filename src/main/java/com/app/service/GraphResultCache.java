@@ -0,0 +1,126 @@
+package com.app.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Computed chart responses per user, keyed by (query, task, variant, day).
+ * <p>
+ * Users are evicted least-recently-used beyond {@code maxUsers}, and each
+ * user's entries beyond {@code maxEntriesPerUser}. Entries expire after
+ * {@code ttl} and are dropped when the rollups they were computed from
+ * change: a task's completions invalidate that task's entries and the user's
+ * all-task entries, which only touches that user's map. The day is part of the
+ * key, so the first read after local midnight recomputes, and every user's
+ * previous-day entries are dropped then.
+ */
+@Component
+public class GraphResultCache {
+
+    private final LruMap<UUID, UserEntries> users;
+    private final int maxEntriesPerUser;
+    private final long ttlNanos;
+
+    private volatile LocalDate currentDay = LocalDate.now();
+
+    public GraphResultCache(
+            @Value("${trackify.graph-cache.max-users:2000}") int maxUsers,
+            @Value("${trackify.graph-cache.max-entries-per-user:64}") int maxEntriesPerUser,
+            @Value("${trackify.graph-cache.ttl:10m}") Duration ttl
+    ) {
+        this.users = new LruMap<>(maxUsers);
+        this.maxEntriesPerUser = maxEntriesPerUser;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * The cached result, or {@code compute} applied to today's date. Results of
+     * failed computations (e.g. a task the user doesn't own) are not cached.
+     *
+     * @param taskId  the task the result is about, or {@code null} for all the user's tasks
+     * @param variant any further input (e.g. the period), or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(UUID userId, String query, Integer taskId, Object variant, Function<LocalDate, T> compute) {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(currentDay)) {
+            currentDay = today;
+            users.removeKeysIf(user -> true);
+        }
+
+        UserEntries user = users.get(userId);
+        if (user == null) {
+            UserEntries created = new UserEntries(maxEntriesPerUser);
+            UserEntries raced = users.putIfAbsent(userId, created);
+            user = raced == null ? created : raced;
+        }
+
+        Key key = new Key(query, taskId, variant, today);
+        long now = System.nanoTime();
+        Entry cached = user.entries.get(key);
+        if (cached != null && now - cached.computedAt() < ttlNanos) {
+            return (T) cached.result();
+        }
+
+        long invalidationsBefore = user.invalidations.get();
+        T result = compute.apply(today);
+
+        if (user.invalidations.get() == invalidationsBefore) {
+            user.entries.put(key, new Entry(result, now));
+            // An invalidation that slipped in between may have run its removal before the put
+            if (user.invalidations.get() != invalidationsBefore) user.entries.remove(key);
+        }
+        return result;
+    }
+
+    public void invalidateTask(UUID userId, Integer taskId) {
+        invalidateTasks(userId, Set.of(taskId));
+    }
+
+    /**
+     * Drops the entries of these tasks and the user's all-task entries, once the
+     * surrounding transaction (if any) commits.
+     */
+    public void invalidateTasks(UUID userId, Collection<Integer> taskIds) {
+        AfterCommit.run(() -> invalidate(userId,
+                key -> key.taskId() == null || taskIds.contains(key.taskId())));
+    }
+
+    public void invalidateUser(UUID userId) {
+        AfterCommit.run(() -> invalidate(userId, key -> true));
+    }
+
+    private void invalidate(UUID userId, Predicate<Key> filter) {
+        UserEntries user = users.get(userId);
+        if (user == null) return;
+
+        // Bumped first so a result computed across this invalidation is not cached
+        user.invalidations.incrementAndGet();
+        user.entries.removeKeysIf(filter);
+    }
+
+    private static final class UserEntries {
+
+        private final LruMap<Key, Entry> entries;
+        private final AtomicLong invalidations = new AtomicLong();
+
+        private UserEntries(int maxEntries) {
+            this.entries = new LruMap<>(maxEntries);
+        }
+    }
+
+    private record Key(String query, Integer taskId, Object variant, LocalDate day) {
+    }
+
+    private record Entry(Object result, long computedAt) {
+    }
+}
@@ -3,12 +3,9 @@ package com.app.service;
 import com.app.dto.*;
 import com.app.enums.PeriodType;
 import com.app.model.Task;
-import com.app.model.TaskCompletions;
 import com.app.model.User;
-import com.app.repository.TaskCompletionRepository;
 import com.app.repository.TaskRepository;
-import com.app.repository.UserRepository;
-import com.app.config.SecurityUtil;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 
 import java.time.*;
@@ -21,7 +18,6 @@ import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.AbstractMap;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -30,31 +26,63 @@ import java.util.stream.Stream;
 
 
 @Service
+@Timed(value = "trackify.service", histogram = true)
 public class GraphService {
 
-    private final TaskCompletionRepository completionRepository;
     private final TaskRepository taskRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final CompletionRollupService rollupService;
+    private final GraphResultCache resultCache;
 
     public GraphService(
-            TaskCompletionRepository completionRepository,
             TaskRepository taskRepository,
-            UserRepository userRepository
+            CurrentUserResolver currentUserResolver,
+            CompletionRollupService rollupService,
+            GraphResultCache resultCache
     ) {
-        this.completionRepository = completionRepository;
         this.taskRepository = taskRepository;
-        this.userRepository = userRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.rollupService = rollupService;
+        this.resultCache = resultCache;
     }
 
     private User getCurrentUser() {
-        String email = SecurityUtil.getCurrentUserEmail();
-        return userRepository.findByEmail(email).orElseThrow();
+        return currentUserResolver.currentUser();
     }
 
+    // ===== CACHED READS (results are a function of user, inputs and today) =====
+
     public List<MonthlyTaskCompletionResponse> getMonthlyCompletionStats(Integer taskId) {
+        return resultCache.get(currentUserResolver.currentUserId(), "monthly", taskId, null,
+                today -> computeMonthlyCompletionStats(taskId, today));
+    }
+
+    public List<TaskCompletionSummaryResponse> getTaskCompletionSummary(PeriodType period) {
+        return resultCache.get(currentUserResolver.currentUserId(), "summary", null, period,
+                today -> computeTaskCompletionSummary(period, today));
+    }
+
+    public List<MonthlyTaskGroupResponse> getMonthlyTaskDetails(Integer taskId) {
+        return resultCache.get(currentUserResolver.currentUserId(), "monthly-details", taskId, null,
+                today -> computeMonthlyTaskDetails(taskId, today));
+    }
+
+    public List<TaskPlannedActualResponse> getTaskPlannedActual(Integer taskId) {
+
+        if (taskId == null) {
+            throw new IllegalArgumentException("taskId is required");
+        }
+
+        return resultCache.get(currentUserResolver.currentUserId(), "planned-actual", taskId, null,
+                today -> computeTaskPlannedActual(taskId, today));
+    }
+
+    // ===== COMPUTATIONS =====
+
+    private List<MonthlyTaskCompletionResponse> computeMonthlyCompletionStats(Integer taskId, LocalDate today) {
 
         User user = getCurrentUser();
-        Year currentYear = Year.now();
+        Year currentYear = Year.from(today);
 
         // Initialize all months with 0
         Map<Month, Long> monthCountMap = new LinkedHashMap<>();
@@ -62,32 +90,24 @@ public class GraphService {
             monthCountMap.put(month, 0L);
         }
 
-        List<TaskCompletions> completions;
-
         if (taskId != null) {
             // Validate task ownership
-            Task task = taskRepository.findById(taskId)
-                    .filter(t -> t.getUser().getId().equals(user.getId()))
-                    .orElseThrow(() -> new RuntimeException("Task not found"));
-
-            completions = completionRepository.findByTaskAndCompletedDateBetween(
-                    task,
-                    currentYear.atDay(1),
-                    currentYear.atMonth(12).atEndOfMonth()
-            );
+            if (!taskRepository.existsByIdAndUserId(taskId, user.getId())) {
+                throw new RuntimeException("Task not found");
+            }
+
+            long[] counts = rollupService.monthlyCounts(
+                    List.of(taskId), currentYear.atMonth(1), currentYear.atMonth(12), null
+            ).get(taskId);
+            for (Month month : Month.values()) {
+                monthCountMap.put(month, counts[month.ordinal()]);
+            }
         } else {
-            // All tasks of the user
-            completions = completionRepository.findByTaskUserAndCompletedDateBetween(
-                    user,
-                    currentYear.atDay(1),
-                    currentYear.atMonth(12).atEndOfMonth()
-            );
-        }
-
-        // Count completions per month
-        for (TaskCompletions tc : completions) {
-            Month month = tc.getCompletedDate().getMonth();
-            monthCountMap.put(month, monthCountMap.get(month) + 1);
+            // All tasks of the user, from the per-day rollup
+            long[] counts = rollupService.userMonthlyCounts(user.getId(), currentYear);
+            for (Month month : Month.values()) {
+                monthCountMap.put(month, counts[month.ordinal()]);
+            }
         }
 
         // Convert to response list
@@ -104,135 +124,116 @@ public class GraphService {
         return response;
     }
 
-    public List<TaskCompletionSummaryResponse> getTaskCompletionSummary(PeriodType period) {
+    private List<TaskCompletionSummaryResponse> computeTaskCompletionSummary(PeriodType period, LocalDate today) {
 
         User user = getCurrentUser();
         List<Task> tasks = taskRepository.findByUserAndIsActiveTrue(user);
 
-        final LocalDate startDate;
-        final LocalDate endDate = LocalDate.now();
+        List<Integer> taskIds = tasks.stream().map(Task::getId).toList();
+
+        YearMonth currentMonth = YearMonth.from(today);
+
+        // taskId -> completed days in the period (till today for month / year)
+        Map<Integer, Long> totals = new HashMap<>();
+
+        if (period == PeriodType.MONTHLY || period == PeriodType.YEARLY) {
+            YearMonth startMonth = period == PeriodType.MONTHLY
+                    ? currentMonth
+                    : YearMonth.of(today.getYear(), 1);
 
-        if (period == PeriodType.MONTHLY) {
-            YearMonth ym = YearMonth.now();
-            startDate = ym.atDay(1);
-        } else if (period == PeriodType.YEARLY) {
-            Year year = Year.now();
-            startDate = year.atDay(1);
+            rollupService.monthlyCounts(taskIds, startMonth, currentMonth, today)
+                    .forEach((id, counts) -> totals.put(id, Arrays.stream(counts).sum()));
         } else {
-            startDate = null; // ALL_TIME
+            totals.putAll(rollupService.totalCounts(taskIds)); // ALL_TIME
         }
 
         return tasks.stream()
-                .map(task -> {
-                    long count = (startDate == null)
-                            ? completionRepository.countByTask(task)
-                            : completionRepository.countByTaskAndCompletedDateBetween(
-                            task, startDate, endDate
-                    );
-
-                    return new TaskCompletionSummaryResponse(
-                            task.getId(),
-                            task.getTitle(),
-                            count
-                    );
-                })
+                .map(task -> new TaskCompletionSummaryResponse(
+                        task.getId(),
+                        task.getTitle(),
+                        totals.getOrDefault(task.getId(), 0L)
+                ))
                 .toList();
     }
 
-    public List<MonthlyTaskGroupResponse> getMonthlyTaskDetails(Integer taskId) {
+    private List<MonthlyTaskGroupResponse> computeMonthlyTaskDetails(Integer taskId, LocalDate today) {
 
         User user = getCurrentUser();
 
-        List<Task> tasks = (taskId == null)
-                ? taskRepository.findByUserAndIsActiveTrue(user)
-                : List.of(
-                taskRepository.findById(taskId)
-                        .filter(t -> t.getUser().getId().equals(user.getId()))
-                        .orElseThrow(() -> new RuntimeException("Task not found"))
-        );
-
-        // 🔹 Use current date
-        LocalDate today = LocalDate.now();
         YearMonth currentMonth = YearMonth.from(today);
 
 // 🔹 Start from 11 months ago (inclusive)
         YearMonth startMonth = currentMonth.minusMonths(11);
 
 // 🔹 Always last 12 months
-        long monthsBetween = 12;
+        int monthsBetween = 12;
+
+        // 🔹 taskId -> title (in response order)
+        Map<Integer, String> titles = new LinkedHashMap<>();
+
+        if (taskId == null) {
+            // 🔹 All active tasks
+            for (Task task : taskRepository.findByUserAndIsActiveTrueOrderById(user)) {
+                titles.put(task.getId(), task.getTitle());
+            }
+        } else {
+            Task task = taskRepository.findByIdAndUserId(taskId, user.getId())
+                    .orElseThrow(() -> new RuntimeException("Task not found"));
+
+            titles.put(task.getId(), task.getTitle());
+        }
+
+        if (titles.isEmpty()) {
+            return List.of();
+        }
 
+        // 🔹 taskId -> count per month slot, current month counted till today
+        Map<Integer, long[]> counts =
+                rollupService.monthlyCounts(titles.keySet(), startMonth, currentMonth, today);
 
         DateTimeFormatter formatter =
                 DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
 
-        return tasks.stream()
-                .flatMap(task ->
-                        Stream.iterate(startMonth, ym -> ym.plusMonths(1))
-                                .limit(monthsBetween)
-                                .map(month -> {
-
-                                    LocalDate start = month.atDay(1);
-                                    LocalDate end;
-
-                                    // 🔹 Current month → till today
-                                    if (month.equals(currentMonth)) {
-                                        end = today;
-                                    } else {
-                                        end = month.atEndOfMonth();
-                                    }
-
-                                    long count = completionRepository
-                                            .countByTaskAndCompletedDateBetween(
-                                                    task, start, end
-                                            );
-
-                                    return new AbstractMap.SimpleEntry<>(
-                                            month,
-                                            new MonthlyTaskDetailResponse(
-                                                    task.getId(),
-                                                    task.getTitle(),
-                                                    count
-                                            )
-                                    );
-                                })
-                )
-                .collect(Collectors.groupingBy(
-                        Map.Entry::getKey,
-                        LinkedHashMap::new,   // 🔹 preserves Jan → Dec order
-                        Collectors.mapping(
-                                Map.Entry::getValue,
-                                Collectors.toList()
-                        )
-                ))
-                .entrySet()
-                .stream()
-                .map(e -> new MonthlyTaskGroupResponse(
-                        e.getKey().toString(),        // 2025-01
-                        e.getKey().format(formatter), // January 2025
-                        e.getValue()
-                ))
-                .toList();
-    }
+        List<MonthlyTaskGroupResponse> response = new ArrayList<>(monthsBetween);
+        for (int i = 0; i < monthsBetween; i++) {
+            YearMonth month = startMonth.plusMonths(i);
+
+            List<MonthlyTaskDetailResponse> monthTasks = new ArrayList<>(titles.size());
+            for (Map.Entry<Integer, String> task : titles.entrySet()) {
+                monthTasks.add(new MonthlyTaskDetailResponse(
+                        task.getKey(),
+                        task.getValue(),
+                        counts.get(task.getKey())[i]
+                ));
+            }
+
+            response.add(new MonthlyTaskGroupResponse(
+                    month.toString(),        // 2025-01
+                    month.format(formatter), // January 2025
+                    monthTasks
+            ));
+        }
 
+        return response;
+    }
 
-    public List<TaskPlannedActualResponse> getTaskPlannedActual(Integer taskId) {
 
-        if (taskId == null) {
-            throw new IllegalArgumentException("taskId is required");
-        }
+    private List<TaskPlannedActualResponse> computeTaskPlannedActual(Integer taskId, LocalDate today) {
 
         User user = getCurrentUser();
 
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
+        Task task = taskRepository.findByIdAndUserId(taskId, user.getId())
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
-        LocalDate today = LocalDate.now();
-
         // 🔹 Start from Jan 1st of current year
         YearMonth startMonth = YearMonth.of(today.getYear(), 1);
         YearMonth currentMonth = YearMonth.from(today);
 
+        // 🔹 Current month counted till today
+        long[] actual = rollupService.monthlyCounts(
+                List.of(task.getId()), startMonth, currentMonth, today
+        ).get(task.getId());
+
         long monthsBetween =
                 ChronoUnit.MONTHS.between(startMonth, currentMonth) + 1;
 
@@ -256,8 +257,8 @@ public class GraphService {
                     long plannedDays =
                             ChronoUnit.DAYS.between(start, end) + 1;
 
-                    long actualDays = completionRepository
-                            .countByTaskAndCompletedDateBetween(task, start, end);
+                    long actualDays =
+                            actual[(int) ChronoUnit.MONTHS.between(startMonth, month)];
 
                     return new TaskPlannedActualResponse(
                             month.toString(),        // monthKey
@@ -0,0 +1,102 @@
+package com.app.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Bounded least-recently-used map for in-memory caches.
+ * <p>
+ * Guarded by a {@link ReentrantLock} rather than a monitor: every read reorders
+ * the entries and so takes the lock, and a virtual thread waiting on a lock
+ * unmounts instead of pinning its carrier. Callbacks run under the lock and
+ * must not block.
+ */
+final class LruMap<K, V> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, V> entries;
+
+    LruMap(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    V get(K key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(K key, V value) {
+        lock.lock();
+        try {
+            entries.put(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    V putIfAbsent(K key, V value) {
+        lock.lock();
+        try {
+            return entries.putIfAbsent(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+        lock.lock();
+        try {
+            return entries.merge(key, value, remapping);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+        lock.lock();
+        try {
+            entries.computeIfPresent(key, remapping);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void removeKeysIf(Predicate<? super K> filter) {
+        lock.lock();
+        try {
+            entries.keySet().removeIf(filter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void removeValuesIf(Predicate<? super V> filter) {
+        lock.lock();
+        try {
+            entries.values().removeIf(filter);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
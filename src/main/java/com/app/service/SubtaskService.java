@@ -1,7 +1,10 @@
 package com.app.service;
 
+import com.app.dto.CompletionBatchResult;
 import com.app.dto.SubTaskResponse;
+import com.app.dto.SubtaskCompletionOperation;
 import com.app.dto.SubtaskStatusResponse;
+import com.app.enums.CompletionChange;
 import com.app.model.Subtask;
 import com.app.model.SubtaskCompletions;
 import com.app.model.Task;
@@ -9,44 +12,60 @@ import com.app.model.User;
 import com.app.repository.SubtaskCompletionRepository;
 import com.app.repository.SubtaskRepository;
 import com.app.repository.TaskRepository;
-import com.app.config.SecurityUtil;
-import com.app.repository.UserRepository;
+import com.app.repository.projection.SubtaskCompletionKey;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
+@Timed(value = "trackify.service", histogram = true)
 public class SubtaskService {
 
+    private static final int MAX_BATCH_OPERATIONS = 1000;
+
     private final SubtaskRepository subtaskRepository;
     private final TaskRepository taskRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final SubtaskCompletionRepository subtaskCompletionRepository;
+    private final UserDataVersions dataVersions;
+    private final CompletionPublisher completionPublisher;
+    private final SyncService syncService;
 
     public SubtaskService(SubtaskRepository subtaskRepository,
                           TaskRepository taskRepository,
-                          UserRepository userRepository,
-                          SubtaskCompletionRepository subtaskCompletionRepository) {
+                          CurrentUserResolver currentUserResolver,
+                          SubtaskCompletionRepository subtaskCompletionRepository,
+                          UserDataVersions dataVersions,
+                          CompletionPublisher completionPublisher,
+                          SyncService syncService) {
         this.subtaskRepository = subtaskRepository;
         this.taskRepository = taskRepository;
-        this.userRepository = userRepository;
+        this.currentUserResolver = currentUserResolver;
         this.subtaskCompletionRepository=subtaskCompletionRepository;
+        this.dataVersions = dataVersions;
+        this.completionPublisher = completionPublisher;
+        this.syncService = syncService;
     }
 
     private User getCurrentUser() {
-        String email = SecurityUtil.getCurrentUserEmail();
-        return userRepository.findByEmail(email).orElseThrow();
+        return currentUserResolver.currentUser();
     }
 
     @Transactional
     public Subtask createSubtask(Integer taskId, String title) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.loadCurrentUser(); // returned with its owner
 
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
+        Task task = taskRepository.findByIdAndUserId(taskId, user.getId())
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
         if (!task.getHasSubtasks()) {
@@ -64,15 +83,16 @@ public class SubtaskService {
         subtask.setCreatedAt(Instant.now());
         subtask.setIsActive(true);
 
-        return subtaskRepository.save(subtask);
+        Subtask saved = subtaskRepository.save(subtask);
+        dataVersions.bump(user.getId());
+        syncService.subtaskChanged(user.getId(), saved.getId());
+        return saved;
     }
 
     public List<SubTaskResponse> getSubtasks(Integer taskId) {
         User user = getCurrentUser();
 
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        Task task = ownedTaskReference(taskId, user);
 
         return subtaskRepository.findByTaskAndIsActiveTrueOrderByCreatedAtDesc(task)
                 .stream()
@@ -86,16 +106,17 @@ public class SubtaskService {
 
     @Transactional
     public Subtask editSubtask(Integer subtaskId, String newTitle) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.loadCurrentUser(); // returned with its owner
 
-        Subtask subtask = subtaskRepository.findById(subtaskId)
-                .filter(st -> st.getTask().getUser().getId().equals(user.getId()))
+        Subtask subtask = subtaskRepository.findByIdAndTaskUserId(subtaskId, user.getId())
                 .orElseThrow(() -> new RuntimeException("Subtask not found"));
 
         if (newTitle != null && !newTitle.trim().isEmpty()) {
             subtask.setTitle(newTitle.trim());
         }
 
+        dataVersions.bump(user.getId());
+        syncService.subtaskChanged(user.getId(), subtask.getId());
         return subtaskRepository.save(subtask);
     }
 
@@ -103,8 +124,7 @@ public class SubtaskService {
     public void deleteSubtask(Integer subtaskId) {
         User user = getCurrentUser();
 
-        Subtask subtask = subtaskRepository.findById(subtaskId)
-                .filter(st -> st.getTask().getUser().getId().equals(user.getId()))
+        Subtask subtask = subtaskRepository.findByIdAndTaskUserId(subtaskId, user.getId())
                 .orElseThrow(() -> new RuntimeException("Subtask not found"));
 
         // Delete all completions of this subtask
@@ -112,82 +132,139 @@ public class SubtaskService {
 
         // Delete the subtask
         subtaskRepository.delete(subtask);
+        dataVersions.bump(user.getId());
+        syncService.subtaskDeleted(user.getId(), subtask.getId());
     }
 
     @Transactional
-    public void toggleSubtaskCompleted(Integer subtaskId, LocalDate date) {
-        User user = getCurrentUser();
-
-        Subtask subtask = subtaskRepository.findById(subtaskId)
-                .filter(st -> st.getTask().getUser().getId().equals(user.getId()))
-                .orElseThrow(() -> new RuntimeException("Subtask not found"));
-
-        if (subtaskCompletionRepository.existsBySubtaskAndCompletedDate(subtask, date)) {
-            // undo completion
-            subtaskCompletionRepository.findBySubtaskAndCompletedDate(subtask, date)
-                    .ifPresent(subtaskCompletionRepository::delete);
-        } else {
-            // mark as completed
-            SubtaskCompletions sc = new SubtaskCompletions();
-            sc.setSubtask(subtask);
-            sc.setCompletedDate(date);
-            subtaskCompletionRepository.save(sc);
-        }
+    public boolean toggleSubtaskCompleted(Integer subtaskId, LocalDate date) {
+        return toggleCompleted(subtaskId, date);
     }
 
     // ---------------- Mark Completed ----------------
     @Transactional
     public void markCompleted(Integer subtaskId, LocalDate date) {
         User user = getCurrentUser();
+        requireOwnedSubtask(subtaskId, user);
 
-        Subtask subtask = subtaskRepository.findById(subtaskId)
-                .filter(st -> st.getTask().getUser().getId().equals(user.getId()))
-                .orElseThrow(() -> new RuntimeException("Subtask not found"));
-
-        subtaskCompletionRepository.findBySubtaskAndCompletedDate(subtask, date)
-                .orElseGet(() -> {
-                    SubtaskCompletions sc = new SubtaskCompletions();
-                    sc.setSubtask(subtask);
-                    sc.setCompletedDate(date);
-                    return subtaskCompletionRepository.save(sc);
-                });
+        if (subtaskCompletionRepository.insertIfAbsent(subtaskId, date) > 0) {
+            dataVersions.bump(user.getId());
+            completionPublisher.subtaskChanged(subtaskId, date, true);
+            syncService.subtaskCompletionChanged(user.getId(), subtaskId, date, true);
+        }
     }
 
     // ---------------- Undo Completed ----------------
     @Transactional
     public void undoCompleted(Integer subtaskId, LocalDate date) {
         User user = getCurrentUser();
+        requireOwnedSubtask(subtaskId, user);
 
-        Subtask subtask = subtaskRepository.findById(subtaskId)
-                .filter(st -> st.getTask().getUser().getId().equals(user.getId()))
-                .orElseThrow(() -> new RuntimeException("Subtask not found"));
-
-        subtaskCompletionRepository.findBySubtaskAndCompletedDate(subtask, date)
-                .ifPresent(subtaskCompletionRepository::delete);
+        if (subtaskCompletionRepository.deleteIfPresent(subtaskId, date) > 0) {
+            dataVersions.bump(user.getId());
+            completionPublisher.subtaskChanged(subtaskId, date, false);
+            syncService.subtaskCompletionChanged(user.getId(), subtaskId, date, false);
+        }
     }
 
     // ---------------- Toggle Completed ----------------
     @Transactional
-    public void toggleCompleted(Integer subtaskId, LocalDate date) {
+    public boolean toggleCompleted(Integer subtaskId, LocalDate date) {
+        CompletionBitmap.requireAccepted(date);
         User user = getCurrentUser();
+        requireOwnedSubtask(subtaskId, user);
 
-        Subtask subtask = subtaskRepository.findById(subtaskId)
-                .filter(st -> st.getTask().getUser().getId().equals(user.getId()))
-                .orElseThrow(() -> new RuntimeException("Subtask not found"));
+        CompletionChange change = subtaskCompletionRepository.toggle(subtaskId, date);
+        if (change != CompletionChange.UNCHANGED) {
+            dataVersions.bump(user.getId());
+            completionPublisher.subtaskChanged(subtaskId, date, change == CompletionChange.ADDED);
+            syncService.subtaskCompletionChanged(user.getId(), subtaskId, date, change == CompletionChange.ADDED);
+        }
 
-        if (subtaskCompletionRepository.existsBySubtaskAndCompletedDate(subtask, date)) {
-            undoCompleted(subtaskId, date);
-        } else {
-            markCompleted(subtaskId, date);
+        // UNCHANGED: a concurrent toggle inserted the same day first
+        return change != CompletionChange.REMOVED;
+    }
+
+    /**
+     * Applies desired completion states for many (subtask, day) cells at once;
+     * results come back in request order.
+     */
+    @Transactional
+    public List<CompletionBatchResult> applyCompletionBatch(List<SubtaskCompletionOperation> operations) {
+        if (operations.size() > MAX_BATCH_OPERATIONS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_OPERATIONS + " operations per batch");
+        }
+
+        User user = getCurrentUser();
+
+        Set<Integer> requestedIds = new HashSet<>();
+        operations.forEach(op -> {
+            if (op.subtaskId() != null) requestedIds.add(op.subtaskId());
+        });
+        Set<Integer> ownedIds = requestedIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(subtaskRepository.findIdsByTaskUserIdAndIdIn(user.getId(), requestedIds));
+
+        LocalDate today = LocalDate.now();
+        CompletionBatchResult[] results = new CompletionBatchResult[operations.size()];
+        Map<SubtaskCompletionKey, Integer> accepted = new HashMap<>();
+        List<SubtaskCompletionKey> toAdd = new ArrayList<>();
+        List<SubtaskCompletionKey> toRemove = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            SubtaskCompletionOperation op = operations.get(i);
+
+            if (op.subtaskId() == null || op.date() == null || op.completed() == null) {
+                results[i] = CompletionBatchResult.rejected(op.subtaskId(), op.date(), "subtaskId, date and completed are required");
+            } else if (!CompletionBitmap.accepts(op.date(), today)) {
+                results[i] = CompletionBatchResult.rejected(op.subtaskId(), op.date(), "Date out of range");
+            } else if (!ownedIds.contains(op.subtaskId())) {
+                results[i] = CompletionBatchResult.rejected(op.subtaskId(), op.date(), "Subtask not found");
+            } else {
+                SubtaskCompletionKey key = new SubtaskCompletionKey(op.subtaskId(), op.date());
+                if (accepted.putIfAbsent(key, i) != null) {
+                    results[i] = CompletionBatchResult.rejected(op.subtaskId(), op.date(), "Duplicate operation for this subtask and date");
+                } else {
+                    (op.completed() ? toAdd : toRemove).add(key);
+                }
+            }
+        }
+
+        List<SubtaskCompletionKey> added = subtaskCompletionRepository.insertIgnoringDuplicates(toAdd);
+        List<SubtaskCompletionKey> removed = subtaskCompletionRepository.deleteExisting(toRemove);
+
+        Set<SubtaskCompletionKey> changed = new HashSet<>(added);
+        changed.addAll(removed);
+        accepted.forEach((key, i) -> results[i] = CompletionBatchResult.applied(
+                key.subtaskId(), key.completedDate(), operations.get(i).completed(), changed.contains(key)));
+
+        if (!changed.isEmpty()) {
+            dataVersions.bump(user.getId());
+        }
+        completionPublisher.subtasksChanged(added, removed);
+        syncService.subtaskCompletionsChanged(user.getId(), added, removed);
+
+        return Arrays.asList(results);
+    }
+
+    // Ownership checks that don't load the row; references are enough for FKs
+    private Task ownedTaskReference(Integer taskId, User user) {
+        if (!taskRepository.existsByIdAndUserId(taskId, user.getId())) {
+            throw new RuntimeException("Task not found");
+        }
+        return taskRepository.getReferenceById(taskId);
+    }
+
+    private void requireOwnedSubtask(Integer subtaskId, User user) {
+        if (!subtaskRepository.existsByIdAndTaskUserId(subtaskId, user.getId())) {
+            throw new RuntimeException("Subtask not found");
         }
     }
 
     public List<SubtaskStatusResponse> getSubtaskStatusByDate(Integer taskId, LocalDate date) {
         User user = getCurrentUser();
 
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        Task task = ownedTaskReference(taskId, user);
 
         // 1️⃣ Get all active subtasks
         List<Subtask> subtasks =
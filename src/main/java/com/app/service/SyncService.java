@@ -0,0 +1,252 @@
+package com.app.service;
+
+import com.app.dto.SyncResponse;
+import com.app.dto.TaskResponse;
+import com.app.enums.SyncKind;
+import com.app.model.SyncChange;
+import com.app.repository.SubtaskRepository;
+import com.app.repository.SyncChangeRepository;
+import com.app.repository.TaskRepository;
+import com.app.repository.projection.CompletionKey;
+import com.app.repository.projection.SubtaskCompletionKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Delta sync for clients that keep a local copy (the mobile app): a cursor
+ * names a position in the user's change log, and a sync returns everything
+ * that changed after it, in pages.
+ * <p>
+ * Writers record their changes here inside their own transaction, as their
+ * last statement: the log row lock orders a user's commits (see
+ * V4__sync_changes.sql), and taking it last keeps lock order consistent with
+ * the rollup and streak updates before it.
+ * <p>
+ * Tombstones expire after {@code trackify.sync.tombstone-retention}. A cursor
+ * remembers when its client last caught up with the whole log; once that is
+ * longer ago than the retention, deletes it has not seen may be gone, and the
+ * client is told to sync in full instead.
+ */
+@Service
+public class SyncService {
+
+    public static final int MAX_PAGE_SIZE = 5000;
+
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    // changed_at is the writer's transaction start, a little before its commit; tombstones
+    // are kept this much past the retention so a client caught up in between still sees them
+    private static final Duration COMMIT_GRACE = Duration.ofMinutes(10);
+
+    private final SyncChangeRepository syncChangeRepository;
+    private final TaskRepository taskRepository;
+    private final SubtaskRepository subtaskRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final Duration tombstoneRetention;
+
+    public SyncService(SyncChangeRepository syncChangeRepository,
+                       TaskRepository taskRepository,
+                       SubtaskRepository subtaskRepository,
+                       CurrentUserResolver currentUserResolver,
+                       @Value("${trackify.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.syncChangeRepository = syncChangeRepository;
+        this.taskRepository = taskRepository;
+        this.subtaskRepository = subtaskRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    // ===== Recording =====
+
+    public void taskChanged(UUID userId, Integer taskId) {
+        tasksChanged(userId, Set.of(taskId));
+    }
+
+    public void tasksChanged(UUID userId, Collection<Integer> taskIds) {
+        syncChangeRepository.recordEntities(userId, SyncKind.TASK, taskIds, false);
+    }
+
+    public void taskDeleted(UUID userId, Integer taskId) {
+        syncChangeRepository.recordEntities(userId, SyncKind.TASK, Set.of(taskId), true);
+    }
+
+    public void subtaskChanged(UUID userId, Integer subtaskId) {
+        syncChangeRepository.recordEntities(userId, SyncKind.SUBTASK, Set.of(subtaskId), false);
+    }
+
+    public void subtaskDeleted(UUID userId, Integer subtaskId) {
+        syncChangeRepository.recordEntities(userId, SyncKind.SUBTASK, Set.of(subtaskId), true);
+    }
+
+    public void completionChanged(UUID userId, Integer taskId, LocalDate date, boolean completed) {
+        List<CompletionKey> key = List.of(new CompletionKey(taskId, date));
+        completionsChanged(userId, completed ? key : List.of(), completed ? List.of() : key);
+    }
+
+    public void completionsChanged(UUID userId, List<CompletionKey> added, List<CompletionKey> removed) {
+        syncChangeRepository.recordTaskCompletions(userId, added, removed);
+    }
+
+    public void subtaskCompletionChanged(UUID userId, Integer subtaskId, LocalDate date, boolean completed) {
+        List<SubtaskCompletionKey> key = List.of(new SubtaskCompletionKey(subtaskId, date));
+        subtaskCompletionsChanged(userId, completed ? key : List.of(), completed ? List.of() : key);
+    }
+
+    public void subtaskCompletionsChanged(UUID userId, List<SubtaskCompletionKey> added,
+                                          List<SubtaskCompletionKey> removed) {
+        syncChangeRepository.recordSubtaskCompletions(userId, added, removed);
+    }
+
+    @Transactional
+    public void deleteUser(UUID userId) {
+        syncChangeRepository.deleteUser(userId);
+    }
+
+    /**
+     * Drops tombstones older than the retention. Live rows are kept whatever
+     * their age: they are the state a full sync returns.
+     */
+    @Scheduled(cron = "${trackify.sync.expiry-cron:0 45 3 * * *}")
+    @Transactional
+    public int expireTombstones() {
+        return syncChangeRepository.deleteTombstonesChangedBefore(
+                Instant.now().minus(tombstoneRetention).minus(COMMIT_GRACE));
+    }
+
+    // ===== Reading =====
+
+    /**
+     * Up to {@code limit} changes after {@code cursor}, or from the beginning
+     * (the user's full state) without one. Log, tasks and subtasks are read
+     * from one snapshot. A cursor older than the tombstone retention gets
+     * {@link SyncResponse#fullSyncRequired()} instead.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public SyncResponse changesSince(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Instant now = Instant.now();
+        Cursor position = cursor == null || cursor.isEmpty() ? new Cursor(-1, 0, now) : decodeCursor(cursor);
+        if (position.caughtUpAt().isBefore(now.minus(tombstoneRetention))) {
+            return SyncResponse.fullSyncRequired();
+        }
+
+        UUID userId = currentUserResolver.currentUserId();
+
+        // One extra row tells whether another page follows
+        List<SyncChange> changes = syncChangeRepository.findPage(userId, position.version(), position.id(), limit + 1);
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) changes = changes.subList(0, limit);
+
+        List<Integer> taskIds = new ArrayList<>();
+        List<Integer> deletedTaskIds = new ArrayList<>();
+        List<Integer> subtaskIds = new ArrayList<>();
+        List<Integer> deletedSubtaskIds = new ArrayList<>();
+        Map<Integer, List<LocalDate>> completed = new LinkedHashMap<>();
+        Map<Integer, List<LocalDate>> uncompleted = new LinkedHashMap<>();
+        Map<Integer, List<LocalDate>> subtaskCompleted = new LinkedHashMap<>();
+        Map<Integer, List<LocalDate>> subtaskUncompleted = new LinkedHashMap<>();
+
+        for (SyncChange change : changes) {
+            switch (change.getKind()) {
+                case TASK -> (change.isDeleted() ? deletedTaskIds : taskIds).add(change.getEntityId());
+                case SUBTASK -> (change.isDeleted() ? deletedSubtaskIds : subtaskIds).add(change.getEntityId());
+                case TASK_COMPLETION -> (change.isDeleted() ? uncompleted : completed)
+                        .computeIfAbsent(change.getEntityId(), id -> new ArrayList<>())
+                        .add(change.getCompletedDate());
+                case SUBTASK_COMPLETION -> (change.isDeleted() ? subtaskUncompleted : subtaskCompleted)
+                        .computeIfAbsent(change.getEntityId(), id -> new ArrayList<>())
+                        .add(change.getCompletedDate());
+            }
+        }
+
+        List<TaskResponse> tasks = taskIds.isEmpty() ? List.of() : taskRepository.findAllById(taskIds)
+                .stream()
+                .map(task -> new TaskResponse(
+                        task.getId(),
+                        task.getTitle(),
+                        task.getIsActive(),
+                        task.getHasSubtasks(),
+                        task.getCreatedAt()
+                ))
+                .toList();
+
+        List<SyncResponse.SyncedSubtask> subtasks = subtaskIds.isEmpty() ? List.of() : subtaskRepository.findAllById(subtaskIds)
+                .stream()
+                .map(st -> new SyncResponse.SyncedSubtask(
+                        st.getId(),
+                        st.getTask().getId(),
+                        st.getTitle(),
+                        st.getIsActive(),
+                        st.getCreatedAt()
+                ))
+                .toList();
+
+        // The client has caught up once it reads the last page; until then it keeps the old time
+        Instant caughtUpAt = hasMore ? position.caughtUpAt() : now;
+        String nextCursor = changes.isEmpty()
+                ? encodeCursor(new Cursor(position.version(), position.id(), caughtUpAt))
+                : encodeCursor(new Cursor(changes.getLast().getVersion(), changes.getLast().getId(), caughtUpAt));
+
+        return new SyncResponse(
+                tasks,
+                deletedTaskIds,
+                subtasks,
+                deletedSubtaskIds,
+                completed,
+                uncompleted,
+                subtaskCompleted,
+                subtaskUncompleted,
+                nextCursor,
+                hasMore,
+                false
+        );
+    }
+
+    // (version, id) of the last change a client has seen, and when it last read the log to the end
+    private record Cursor(long version, long id, Instant caughtUpAt) {
+    }
+
+    private static String encodeCursor(Cursor cursor) {
+        return CURSOR_ENCODER.encodeToString(ByteBuffer.allocate(24)
+                .putLong(cursor.version())
+                .putLong(cursor.id())
+                .putLong(cursor.caughtUpAt().toEpochMilli())
+                .array());
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            bytes = null;
+        }
+        if (bytes == null || (bytes.length != 24 && bytes.length != 16)) {
+            throw new IllegalArgumentException("Invalid sync cursor");
+        }
+
+        // Cursors issued before tombstones expired carry no time; treat them as stale
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new Cursor(buffer.getLong(), buffer.getLong(),
+                buffer.hasRemaining() ? Instant.ofEpochMilli(buffer.getLong()) : Instant.EPOCH);
+    }
+}
@@ -0,0 +1,87 @@
+package com.app.service;
+
+import com.app.repository.TaskCompletionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory per-task completion bitmaps so date-range reads don't hit the DB.
+ * Bitmaps are loaded on first use, kept current by the completion write paths
+ * and evicted least-recently-used once {@code maxTasks} is reached.
+ */
+@Component
+public class TaskCompletionIndex {
+
+    private final TaskCompletionRepository completionRepository;
+    private final LruMap<Integer, CompletionBitmap> bitmaps;
+
+    // Bumped by every write so a load that raced with a write is not cached
+    private final AtomicLong writes = new AtomicLong();
+
+    public TaskCompletionIndex(
+            TaskCompletionRepository completionRepository,
+            @Value("${trackify.completion-index.max-tasks:10000}") int maxTasks
+    ) {
+        this.completionRepository = completionRepository;
+        this.bitmaps = new LruMap<>(maxTasks);
+    }
+
+    public CompletionBitmap forTask(Integer taskId) {
+        CompletionBitmap bitmap = bitmaps.get(taskId);
+        if (bitmap != null) return bitmap;
+
+        long writesBeforeLoad = writes.get();
+        CompletionBitmap loaded =
+                CompletionBitmap.ofEpochDays(completionRepository.findEpochDaysByTaskId(taskId));
+
+        // A read-write transaction sees its own uncommitted completions and may
+        // still roll back; only committed state is cached
+        if (writes.get() != writesBeforeLoad
+                || (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return loaded;
+        }
+        CompletionBitmap existing = bitmaps.putIfAbsent(taskId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * The task's completions as the current transaction sees them, read from
+     * the DB and not cached; for writers that must see every write committed
+     * before a lock they hold.
+     */
+    public CompletionBitmap load(Integer taskId) {
+        return CompletionBitmap.ofEpochDays(completionRepository.findEpochDaysByTaskId(taskId));
+    }
+
+    public void recordCompleted(Integer taskId, LocalDate date) {
+        afterCommit(() -> bitmaps.computeIfPresent(taskId, (id, bitmap) -> bitmap.with(date)));
+    }
+
+    public void recordUndone(Integer taskId, LocalDate date) {
+        afterCommit(() -> bitmaps.computeIfPresent(taskId, (id, bitmap) -> bitmap.without(date)));
+    }
+
+    public void evict(Integer taskId) {
+        afterCommit(() -> bitmaps.remove(taskId));
+    }
+
+    public void evictAll(Collection<Integer> taskIds) {
+        afterCommit(() -> taskIds.forEach(bitmaps::remove));
+    }
+
+    // Apply index changes only once the DB change is visible to other readers
+    private void afterCommit(Runnable change) {
+        AfterCommit.run(() -> apply(change));
+    }
+
+    private void apply(Runnable change) {
+        writes.incrementAndGet();
+        change.run();
+    }
+}
@@ -0,0 +1,366 @@
+package com.app.service;
+
+import com.app.dto.ImportReportResponse;
+import com.app.model.Task;
+import com.app.model.User;
+import com.app.repository.TaskCompletionRepository;
+import com.app.repository.TaskRepository;
+import com.app.repository.projection.CompletionKey;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CSV import for tasks and task completions.
+ * <p>
+ * Rows are parsed in chunks; each chunk is written with a single multi-row
+ * insert in its own transaction, so large histories neither hold one long
+ * transaction nor issue a statement per row.
+ */
+@Service
+public class TaskImportService {
+
+    private static final int CHUNK_SIZE = 5000;
+    private static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private final TaskRepository taskRepository;
+    private final TaskCompletionRepository completionRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final TaskCompletionIndex completionIndex;
+    private final TaskStreakService streakService;
+    private final CompletionRollupService rollupService;
+    private final UserDataVersions dataVersions;
+    private final GraphResultCache graphCache;
+    private final SyncService syncService;
+    private final TransactionTemplate transactionTemplate;
+
+    public TaskImportService(
+            TaskRepository taskRepository,
+            TaskCompletionRepository completionRepository,
+            CurrentUserResolver currentUserResolver,
+            TaskCompletionIndex completionIndex,
+            TaskStreakService streakService,
+            CompletionRollupService rollupService,
+            UserDataVersions dataVersions,
+            GraphResultCache graphCache,
+            SyncService syncService,
+            TransactionTemplate transactionTemplate
+    ) {
+        this.taskRepository = taskRepository;
+        this.completionRepository = completionRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.completionIndex = completionIndex;
+        this.streakService = streakService;
+        this.rollupService = rollupService;
+        this.dataVersions = dataVersions;
+        this.graphCache = graphCache;
+        this.syncService = syncService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    private User getCurrentUser() {
+        return currentUserResolver.currentUser();
+    }
+
+    public Map<Integer, Integer> importTasksCsv(MultipartFile file) throws IOException {
+
+        User user = getCurrentUser();
+        Map<Integer, Integer> taskIdMapping = new HashMap<>();
+
+        try (BufferedReader reader = open(file)) {
+
+            // ===== HEADER =====
+            Map<String, Integer> headerIndex = readHeader(reader);
+            if (headerIndex == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+
+            // ===== REQUIRED (ID OPTIONAL) =====
+            if (!headerIndex.containsKey("title")) {
+                throw new IllegalArgumentException("CSV must contain title column");
+            }
+
+            List<Task> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<Integer> oldTaskIds = new ArrayList<>(CHUNK_SIZE);
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+
+                if (line.isBlank()) continue;
+
+                List<String> cols = splitCsvLine(line);
+
+                // ---------- TITLE ----------
+                String title = column(cols, headerIndex, "title");
+                if (title.isEmpty()) continue; // skip invalid rows
+
+                // ---------- OLD TASK ID (OPTIONAL) ----------
+                Integer oldTaskId = null;
+                try {
+                    String idRaw = column(cols, headerIndex, "id");
+                    if (!idRaw.isEmpty()) oldTaskId = Integer.parseInt(idRaw);
+                } catch (NumberFormatException ignored) {
+                }
+
+                // ---------- CREATED AT ----------
+                Instant createdAt = Instant.now();
+                try {
+                    String createdAtRaw = column(cols, headerIndex, "createdat");
+                    if (!createdAtRaw.isEmpty()) createdAt = Instant.parse(createdAtRaw);
+                } catch (Exception ignored) {
+                }
+
+                // ---------- FLAGS ----------
+                String isActiveRaw = column(cols, headerIndex, "isactive");
+                String hasSubtasksRaw = column(cols, headerIndex, "hassubtasks");
+
+                Task task = new Task();
+                task.setUser(user);
+                task.setTitle(title);
+                task.setCreatedAt(createdAt);
+                task.setIsActive(!headerIndex.containsKey("isactive") || Boolean.parseBoolean(isActiveRaw));
+                task.setHasSubtasks(Boolean.parseBoolean(hasSubtasksRaw));
+
+                chunk.add(task);
+                oldTaskIds.add(oldTaskId);
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    insertTasks(user, chunk, oldTaskIds, taskIdMapping);
+                }
+            }
+
+            insertTasks(user, chunk, oldTaskIds, taskIdMapping);
+        }
+
+        return taskIdMapping;
+    }
+
+    public ImportReportResponse importTaskCompletionsCsv(
+            MultipartFile file,
+            Map<Integer, Integer> taskIdMapping
+    ) throws IOException {
+
+        User user = getCurrentUser();
+        CompletionImport result = new CompletionImport();
+
+        try (BufferedReader reader = open(file)) {
+
+            Map<String, Integer> headerIndex = readHeader(reader);
+            if (headerIndex == null) return result.toResponse();
+
+            if (!headerIndex.containsKey("taskid")
+                    || !headerIndex.containsKey("completeddate")) {
+                throw new IllegalArgumentException(
+                        "CSV must contain taskId and completedDate columns"
+                );
+            }
+
+            // Resolve the mapping once: only target tasks owned by this user are importable
+            Set<Integer> ownedTaskIds = taskIdMapping.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(taskRepository.findIdsByUserAndIdIn(user, new HashSet<>(taskIdMapping.values())));
+
+            LocalDate today = LocalDate.now();
+            Set<Long> seen = new HashSet<>();
+            List<CompletionKey> chunk = new ArrayList<>(CHUNK_SIZE);
+
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue; // skip empty lines
+
+                List<String> cols = splitCsvLine(line);
+                if (cols.size() < headerIndex.size()) {
+                    result.reject(lineNumber, "Missing columns");
+                    continue;
+                }
+
+                Integer oldTaskId;
+                LocalDate completedDate;
+                try {
+                    oldTaskId = Integer.parseInt(column(cols, headerIndex, "taskid"));
+                } catch (NumberFormatException e) {
+                    result.reject(lineNumber, "Invalid task id");
+                    continue;
+                }
+                try {
+                    completedDate = LocalDate.parse(column(cols, headerIndex, "completeddate"));
+                } catch (Exception e) {
+                    result.reject(lineNumber, "Invalid completed date");
+                    continue;
+                }
+                if (!CompletionBitmap.accepts(completedDate, today)) {
+                    result.reject(lineNumber, "Completed date out of range");
+                    continue;
+                }
+
+                Integer newTaskId = taskIdMapping.get(oldTaskId);
+                if (newTaskId == null) {
+                    result.reject(lineNumber, "Task id " + oldTaskId + " is not in the task mapping");
+                    continue;
+                }
+                if (!ownedTaskIds.contains(newTaskId)) {
+                    result.reject(lineNumber, "Task not found");
+                    continue;
+                }
+
+                long key = ((long) newTaskId << 32) | (completedDate.toEpochDay() & 0xFFFFFFFFL);
+                if (!seen.add(key)) {
+                    result.duplicates++;
+                    continue;
+                }
+
+                chunk.add(new CompletionKey(newTaskId, completedDate));
+                if (chunk.size() == CHUNK_SIZE) {
+                    insertCompletions(user, chunk, result);
+                }
+            }
+
+            insertCompletions(user, chunk, result);
+        }
+
+        return result.toResponse();
+    }
+
+    private void insertTasks(User user, List<Task> chunk, List<Integer> oldTaskIds,
+                             Map<Integer, Integer> taskIdMapping) {
+        if (chunk.isEmpty()) return;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            taskRepository.insertAll(user.getId(), chunk);
+            syncService.tasksChanged(user.getId(), chunk.stream().map(Task::getId).toList());
+        });
+        dataVersions.bump(user.getId());
+        graphCache.invalidateUser(user.getId());
+
+        // ---------- MAPPING ONLY IF ID EXISTS ----------
+        for (int i = 0; i < chunk.size(); i++) {
+            if (oldTaskIds.get(i) != null) {
+                taskIdMapping.put(oldTaskIds.get(i), chunk.get(i).getId());
+            }
+        }
+
+        chunk.clear();
+        oldTaskIds.clear();
+    }
+
+    private void insertCompletions(User user, List<CompletionKey> chunk, CompletionImport result) {
+        if (chunk.isEmpty()) return;
+
+        List<CompletionKey> inserted = transactionTemplate.execute(status -> {
+            List<CompletionKey> rows =
+                    completionRepository.insertIgnoringDuplicates(chunk);
+            rollupService.recordAdded(user.getId(), rows);
+
+            Set<Integer> touchedTaskIds = new HashSet<>();
+            rows.forEach(row -> touchedTaskIds.add(row.taskId()));
+
+            completionIndex.evictAll(touchedTaskIds);
+            streakService.invalidate(touchedTaskIds);
+            dataVersions.bump(user.getId());
+            syncService.completionsChanged(user.getId(), rows, List.of());
+            return rows;
+        });
+
+        result.imported += inserted.size();
+        result.duplicates += chunk.size() - inserted.size();
+        chunk.clear();
+    }
+
+    private static BufferedReader open(MultipartFile file) throws IOException {
+        return new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    // Header names are matched case-insensitively, ignoring spaces and underscores
+    private static Map<String, Integer> readHeader(BufferedReader reader) throws IOException {
+        String headerLine = reader.readLine();
+        if (headerLine == null) return null;
+
+        List<String> headers = splitCsvLine(headerLine);
+        Map<String, Integer> headerIndex = new HashMap<>();
+
+        for (int i = 0; i < headers.size(); i++) {
+            String normalized =
+                    headers.get(i)
+                            .trim()
+                            .toLowerCase()
+                            .replace("_", "")
+                            .replace(" ", "");
+            headerIndex.put(normalized, i);
+        }
+        return headerIndex;
+    }
+
+    private static String column(List<String> cols, Map<String, Integer> headerIndex, String name) {
+        Integer index = headerIndex.get(name);
+        return index == null || index >= cols.size() ? "" : cols.get(index).trim();
+    }
+
+    // RFC 4180 fields: commas inside quotes are kept and "" unescapes to "
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class CompletionImport {
+        private int imported;
+        private int duplicates;
+        private int rejectedCount;
+        private final List<ImportReportResponse.RowRejection> rejected = new ArrayList<>();
+
+        void reject(long line, String reason) {
+            rejectedCount++;
+            if (rejected.size() < MAX_REPORTED_REJECTIONS) {
+                rejected.add(new ImportReportResponse.RowRejection(line, reason));
+            }
+        }
+
+        ImportReportResponse toResponse() {
+            return new ImportReportResponse(
+                    "Task completions imported successfully",
+                    imported,
+                    duplicates,
+                    rejectedCount,
+                    rejected
+            );
+        }
+    }
+}
@@ -1,59 +1,89 @@
 package com.app.service;
 
+import com.app.dto.CompletedDaysBitset;
+import com.app.dto.CompletionBatchResult;
 import com.app.dto.InsightsResponse;
 import com.app.dto.TaskFullStatsResponse;
 import com.app.dto.TaskResponse;
+import com.app.dto.TaskCompletionOperation;
 import com.app.dto.TaskStatsResponse;
+import com.app.enums.CompletionChange;
 import com.app.enums.PeriodType;
 import com.app.model.Task;
-import com.app.model.TaskCompletions;
 import com.app.model.User;
 import com.app.repository.TaskCompletionRepository;
 import com.app.repository.TaskRepository;
-import com.app.repository.UserRepository;
-import com.app.config.SecurityUtil;
+import com.app.repository.projection.CompletionDays;
+import com.app.repository.projection.CompletionKey;
+import com.app.repository.projection.TaskCompletionExportRow;
+import com.app.repository.projection.TaskExportRow;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.time.*;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.io.PrintWriter;
 
 import static com.app.enums.PeriodType.*;
 
 
 @Service
+@Timed(value = "trackify.service", histogram = true)
 public class TaskService {
 
+    private static final int MAX_BATCH_OPERATIONS = 1000;
+
     private final TaskRepository taskRepository;
     private final TaskCompletionRepository completionRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final TaskCompletionIndex completionIndex;
+    private final TaskStreakService streakService;
+    private final CompletionRollupService rollupService;
+    private final UserDataVersions dataVersions;
+    private final GraphResultCache graphCache;
+    private final CompletionPublisher completionPublisher;
+    private final SyncService syncService;
 
     public TaskService(
             TaskRepository taskRepository,
             TaskCompletionRepository completionRepository,
-            UserRepository userRepository
+            CurrentUserResolver currentUserResolver,
+            TaskCompletionIndex completionIndex,
+            TaskStreakService streakService,
+            CompletionRollupService rollupService,
+            UserDataVersions dataVersions,
+            GraphResultCache graphCache,
+            CompletionPublisher completionPublisher,
+            SyncService syncService
     ) {
         this.taskRepository = taskRepository;
         this.completionRepository = completionRepository;
-        this.userRepository = userRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.completionIndex = completionIndex;
+        this.streakService = streakService;
+        this.rollupService = rollupService;
+        this.dataVersions = dataVersions;
+        this.graphCache = graphCache;
+        this.completionPublisher = completionPublisher;
+        this.syncService = syncService;
     }
 
     private User getCurrentUser() {
-        String email = SecurityUtil.getCurrentUserEmail();
-        return userRepository.findByEmail(email).orElseThrow();
+        return currentUserResolver.currentUser();
     }
 
     public List<TaskResponse> getMyTasks() {
@@ -69,95 +99,182 @@ public class TaskService {
                 .toList();
     }
 
+    @Transactional
     public Task createTask(String title,Boolean hasSubtasks) {
         Task task = new Task();
         task.setTitle(title);
-        task.setUser(getCurrentUser());
+        task.setUser(currentUserResolver.loadCurrentUser()); // returned with its owner
         task.setHasSubtasks(hasSubtasks != null && hasSubtasks);
-        return taskRepository.save(task);
+
+        Task saved = taskRepository.save(task);
+        dataVersions.bump(saved.getUser().getId());
+        graphCache.invalidateTask(saved.getUser().getId(), saved.getId());
+        syncService.taskChanged(saved.getUser().getId(), saved.getId());
+        return saved;
     }
 
+    @Transactional
     public void undoCompleted(Integer taskId, LocalDate date) {
         User user = getCurrentUser();
+        requireOwnedTask(taskId, user);
 
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
-                .orElseThrow(() -> new RuntimeException("Task not found"));
-
-        completionRepository.findByTaskAndCompletedDate(task, date)
-                .ifPresent(completionRepository::delete);
+        if (completionRepository.deleteIfPresent(taskId, date) > 0) {
+            applyChange(taskId, user, date, CompletionChange.REMOVED);
+        }
     }
 
+    @Transactional
     public void markCompleted(Integer taskId, LocalDate date) {
         User user = getCurrentUser();
+        requireOwnedTask(taskId, user);
 
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
-                .orElseThrow(() -> new RuntimeException("Task not found"));
-
-        completionRepository.findByTaskAndCompletedDate(task, date)
-                .orElseGet(() -> {
-                    TaskCompletions tc = new TaskCompletions();
-                    tc.setTask(task);
-                    tc.setCompletedDate(date);
-                    return completionRepository.save(tc);
-                });
+        if (completionRepository.insertIfAbsent(taskId, date) > 0) {
+            applyChange(taskId, user, date, CompletionChange.ADDED);
+        }
     }
 
-    public void toggleCompleted(Integer taskId, LocalDate date) {
+    /**
+     * Flips the completion for {@code date} and returns whether the task is now completed.
+     */
+    @Transactional
+    public boolean toggleCompleted(Integer taskId, LocalDate date) {
+        CompletionBitmap.requireAccepted(date);
         User user = getCurrentUser();
+        requireOwnedTask(taskId, user);
 
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        CompletionChange change = completionRepository.toggle(taskId, date);
+        applyChange(taskId, user, date, change);
 
-        if (completionRepository.existsByTaskAndCompletedDate(task, date)) {
-            undoCompleted(taskId, date);
-        } else {
-            markCompleted(taskId, date);
-        }
+        // UNCHANGED: a concurrent toggle inserted the same day first
+        return change != CompletionChange.REMOVED;
     }
 
-    public int getTaskStreak(Integer taskId) {
+    /**
+     * Applies desired completion states for many (task, day) cells at once.
+     * Ownership is checked with one query and all inserts / deletes are one
+     * statement each; results come back in request order.
+     */
+    @Transactional
+    public List<CompletionBatchResult> applyCompletionBatch(List<TaskCompletionOperation> operations) {
+        if (operations.size() > MAX_BATCH_OPERATIONS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_OPERATIONS + " operations per batch");
+        }
+
         User user = getCurrentUser();
 
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        Set<Integer> requestedIds = new HashSet<>();
+        operations.forEach(op -> {
+            if (op.taskId() != null) requestedIds.add(op.taskId());
+        });
+        Set<Integer> ownedIds = requestedIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(taskRepository.findIdsByUserAndIdIn(user, requestedIds));
+
+        LocalDate today = LocalDate.now();
+        CompletionBatchResult[] results = new CompletionBatchResult[operations.size()];
+        Map<CompletionKey, Integer> accepted = new HashMap<>();
+        List<CompletionKey> toAdd = new ArrayList<>();
+        List<CompletionKey> toRemove = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            TaskCompletionOperation op = operations.get(i);
+
+            if (op.taskId() == null || op.date() == null || op.completed() == null) {
+                results[i] = CompletionBatchResult.rejected(op.taskId(), op.date(), "taskId, date and completed are required");
+            } else if (!CompletionBitmap.accepts(op.date(), today)) {
+                results[i] = CompletionBatchResult.rejected(op.taskId(), op.date(), "Date out of range");
+            } else if (!ownedIds.contains(op.taskId())) {
+                results[i] = CompletionBatchResult.rejected(op.taskId(), op.date(), "Task not found");
+            } else {
+                CompletionKey key = new CompletionKey(op.taskId(), op.date());
+                if (accepted.putIfAbsent(key, i) != null) {
+                    results[i] = CompletionBatchResult.rejected(op.taskId(), op.date(), "Duplicate operation for this task and date");
+                } else {
+                    (op.completed() ? toAdd : toRemove).add(key);
+                }
+            }
+        }
+
+        List<CompletionKey> added = completionRepository.insertIgnoringDuplicates(toAdd);
+        List<CompletionKey> removed = completionRepository.deleteExisting(toRemove);
+
+        Set<CompletionKey> changed = new HashSet<>(added);
+        changed.addAll(removed);
+        accepted.forEach((key, i) -> results[i] = CompletionBatchResult.applied(
+                key.taskId(), key.completedDate(), operations.get(i).completed(), changed.contains(key)));
+
+        rollupService.recordChanged(user.getId(), added, removed);
+        added.forEach(key -> completionIndex.recordCompleted(key.taskId(), key.completedDate()));
+        removed.forEach(key -> completionIndex.recordUndone(key.taskId(), key.completedDate()));
+
+        // Streak summaries of touched tasks are rebuilt on their next read
+        Set<Integer> touchedTaskIds = new HashSet<>();
+        changed.forEach(key -> touchedTaskIds.add(key.taskId()));
+        if (!touchedTaskIds.isEmpty()) {
+            streakService.invalidate(touchedTaskIds);
+            dataVersions.bump(user.getId());
+        }
+        completionPublisher.tasksChanged(added, removed);
+        syncService.completionsChanged(user.getId(), added, removed);
 
-        List<TaskCompletions> completions =
-                completionRepository.findByTaskOrderByCompletedDateDesc(task);
+        return Arrays.asList(results);
+    }
 
-        int streak = 0;
-        LocalDate expectedDate = LocalDate.now();
+    // Ownership is checked without loading the task
+    private void requireOwnedTask(Integer taskId, User user) {
+        if (!taskRepository.existsByIdAndUserId(taskId, user.getId())) {
+            throw new RuntimeException("Task not found");
+        }
+    }
 
-        for (TaskCompletions tc : completions) {
-            if (tc.getCompletedDate().equals(expectedDate)) {
-                streak++;
-                expectedDate = expectedDate.minusDays(1);
-            } else if (tc.getCompletedDate().isBefore(expectedDate)) {
-                break; // streak broken
+    private void applyChange(Integer taskId, User user, LocalDate date, CompletionChange change) {
+        switch (change) {
+            case ADDED -> {
+                rollupService.recordCompleted(taskId, user.getId(), date);
+                completionIndex.recordCompleted(taskId, date);
+                streakService.recordCompleted(taskId, date);
+                dataVersions.bump(user.getId());
+                completionPublisher.taskChanged(taskId, date, true);
+                syncService.completionChanged(user.getId(), taskId, date, true);
+            }
+            case REMOVED -> {
+                rollupService.recordUndone(taskId, user.getId(), date);
+                completionIndex.recordUndone(taskId, date);
+                streakService.recordUndone(taskId, date);
+                dataVersions.bump(user.getId());
+                completionPublisher.taskChanged(taskId, date, false);
+                syncService.completionChanged(user.getId(), taskId, date, false);
+            }
+            case UNCHANGED -> {
             }
         }
+    }
+
+    public int getTaskStreak(Integer taskId) {
+        User user = getCurrentUser();
+
+        if (!taskRepository.existsByIdAndUserId(taskId, user.getId())) {
+            throw new RuntimeException("Task not found");
+        }
 
-        return streak;
+        return streakService.getCurrentStreak(taskId, LocalDate.now());
     }
 
     public TaskStatsResponse getTaskStats(Integer taskId) {
 
         User user = getCurrentUser();
 
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
+        Task task = taskRepository.findByIdAndUserId(taskId, user.getId())
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
+        CompletionBitmap completed = completionIndex.forTask(task.getId());
+
         // -------- Current Month --------
         YearMonth currentMonth = YearMonth.now();
         LocalDate cmStart = currentMonth.atDay(1);
         LocalDate cmEnd = currentMonth.atEndOfMonth();
 
-        long completedCurrentMonth =
-                completionRepository.countByTaskAndCompletedDateBetween(task, cmStart, cmEnd);
+        long completedCurrentMonth = completed.count(cmStart, cmEnd);
 
         int totalDaysCurrentMonth = currentMonth.lengthOfMonth();
 
@@ -170,8 +287,7 @@ public class TaskService {
         LocalDate pmStart = previousMonth.atDay(1);
         LocalDate pmEnd = previousMonth.atEndOfMonth();
 
-        long completedPreviousMonth =
-                completionRepository.countByTaskAndCompletedDateBetween(task, pmStart, pmEnd);
+        long completedPreviousMonth = completed.count(pmStart, pmEnd);
 
         double monthOverMonthChangePercentage =
                 completedPreviousMonth == 0
@@ -179,7 +295,7 @@ public class TaskService {
                         : ((completedCurrentMonth - completedPreviousMonth) * 100.0) / completedPreviousMonth;
 
         // -------- Total Completed --------
-        long totalCompletedDays = completionRepository.countByTask(task);
+        long totalCompletedDays = completed.count();
 
         return new TaskStatsResponse(
                 task.getId(),
@@ -221,38 +337,72 @@ public class TaskService {
 
         // If taskId is provided, get that specific task
         if (taskId != null) {
-            Task task = taskRepository.findById(taskId)
-                    .filter(t -> t.getUser().getId().equals(user.getId()))
+            Task task = taskRepository.findByIdAndUserId(taskId, user.getId())
                     .orElseThrow(() -> new RuntimeException("Task not found"));
 
-            List<TaskCompletions> completions;
-            if (monthStart != null) {
-                completions = completionRepository.findByTaskAndCompletedDateBetween(task, monthStart, monthEnd);
-            } else {
-                completions = completionRepository.findByTask(task);
-            }
+            CompletionBitmap completed = completionIndex.forTask(task.getId());
 
             return Map.of(
                     task.getId(),
-                    completions.stream()
-                            .map(TaskCompletions::getCompletedDate)
-                            .toList()
+                    monthStart != null ? completed.dates(monthStart, monthEnd) : completed.dates()
             );
         }
 
         // No taskId provided, get all tasks of user
-        List<TaskCompletions> completions;
-        if (monthStart != null) {
-            completions = completionRepository.findByTaskUserAndCompletedDateBetween(user, monthStart, monthEnd);
-        } else {
-            completions = completionRepository.findByTaskUser(user);
+        CompletionDays completions = monthStart != null
+                ? completionRepository.findCompletionDaysByUserIdAndCompletedDateBetween(user.getId(), monthStart, monthEnd)
+                : completionRepository.findCompletionDaysByUserId(user.getId());
+
+        Map<Integer, List<LocalDate>> datesByTask = new HashMap<>();
+        for (int i = 0; i < completions.size(); i++) {
+            datesByTask.computeIfAbsent(completions.taskId(i), id -> new ArrayList<>())
+                    .add(LocalDate.ofEpochDay(completions.epochDay(i)));
+        }
+        return datesByTask;
+    }
+
+    /**
+     * {@link #getAllCompletedDates} as one bitset per task, built from the same
+     * single range query (or the task's cached bitmap).
+     */
+    public Map<Integer, CompletedDaysBitset> getAllCompletedDaysBitsets(Integer taskId, String monthStr) {
+
+        User user = getCurrentUser();
+        YearMonth month = monthStr != null && !monthStr.isBlank() ? YearMonth.parse(monthStr) : null;
+
+        if (taskId != null) {
+            if (!taskRepository.existsByIdAndUserId(taskId, user.getId())) {
+                throw new RuntimeException("Task not found");
+            }
+
+            CompletionBitmap completed = completionIndex.forTask(taskId);
+            return Map.of(
+                    taskId,
+                    CompletedDaysBitset.of(month != null
+                            ? completed.dates(month.atDay(1), month.atEndOfMonth())
+                            : completed.dates())
+            );
+        }
+
+        CompletionDays completions = month != null
+                ? completionRepository.findCompletionDaysByUserIdAndCompletedDateBetween(user.getId(), month.atDay(1), month.atEndOfMonth())
+                : completionRepository.findCompletionDaysByUserId(user.getId());
+
+        // Rows come ordered by task, then day: each task is one slice of the arrays
+        int[] epochDays = new int[completions.size()];
+        for (int i = 0; i < epochDays.length; i++) {
+            epochDays[i] = completions.epochDay(i);
         }
 
-        return completions.stream()
-                .collect(Collectors.groupingBy(
-                        tc -> tc.getTask().getId(),
-                        Collectors.mapping(TaskCompletions::getCompletedDate, Collectors.toList())
-                ));
+        Map<Integer, CompletedDaysBitset> bitsetsByTask = new HashMap<>();
+        int sliceStart = 0;
+        for (int i = 1; i <= epochDays.length; i++) {
+            if (i == epochDays.length || completions.taskId(i) != completions.taskId(sliceStart)) {
+                bitsetsByTask.put(completions.taskId(sliceStart), CompletedDaysBitset.of(epochDays, sliceStart, i));
+                sliceStart = i;
+            }
+        }
+        return bitsetsByTask;
     }
 
     public Map<String, List<LocalDate>> getLast12MonthsDates(Integer taskId) {
@@ -260,10 +410,10 @@ public class TaskService {
         User user = getCurrentUser();
 
         // Fetch the task
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
+        Task task = taskRepository.findByIdAndUserId(taskId, user.getId())
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
+        CompletionBitmap completed = completionIndex.forTask(task.getId());
         Map<String, List<LocalDate>> result = new LinkedHashMap<>();
 
         LocalDate today = LocalDate.now();
@@ -274,42 +424,52 @@ public class TaskService {
             LocalDate monthStart = ym.atDay(1);
             LocalDate monthEnd = ym.atEndOfMonth();
 
-            List<TaskCompletions> completions = completionRepository.findByTaskAndCompletedDateBetween(
-                    task, monthStart, monthEnd
-            );
-
             String monthKey = ym.toString(); // "yyyy-MM"
-            List<LocalDate> dates = completions.stream()
-                    .map(TaskCompletions::getCompletedDate)
-                    .toList();
-
-            result.put(monthKey, dates);
+            result.put(monthKey, completed.dates(monthStart, monthEnd));
         }
 
         return result;
     }
 
+    // The same twelve months as getLast12MonthsDates, as one bitset
+    public CompletedDaysBitset getLast12MonthsBitset(Integer taskId) {
+
+        User user = getCurrentUser();
+
+        if (!taskRepository.existsByIdAndUserId(taskId, user.getId())) {
+            throw new RuntimeException("Task not found");
+        }
+
+        YearMonth currentMonth = YearMonth.now();
+        return CompletedDaysBitset.of(completionIndex.forTask(taskId)
+                .dates(currentMonth.minusMonths(11).atDay(1), currentMonth.atEndOfMonth()));
+    }
+
     @Transactional
     public void deleteTask(Integer taskId) {
         User user = getCurrentUser();
 
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
+        Task task = taskRepository.findByIdAndUserId(taskId, user.getId())
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
-        // 1️⃣ Delete all completions of this task
+        // 1️⃣ Delete all completions of this task (rollups first, they read them)
+        rollupService.deleteTask(task.getId(), user.getId());
         completionRepository.deleteByTask(task);
 
         // 2️⃣ Delete the task itself
         taskRepository.delete(task);
+
+        completionIndex.evict(task.getId());
+        streakService.delete(task.getId());
+        dataVersions.bump(user.getId());
+        syncService.taskDeleted(user.getId(), task.getId());
     }
 
     @Transactional
     public Task editTaskTitle(Integer taskId, String newTitle,Boolean hasSubtasks) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.loadCurrentUser(); // returned with its owner
 
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
+        Task task = taskRepository.findByIdAndUserId(taskId, user.getId())
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
         // ✅ Edit title (only if provided)
@@ -325,240 +485,83 @@ public class TaskService {
             task.setHasSubtasks(hasSubtasks);
         }
 
+        dataVersions.bump(user.getId());
+        graphCache.invalidateTask(user.getId(), task.getId()); // titles are part of chart results
+        syncService.taskChanged(user.getId(), task.getId());
         return taskRepository.save(task);
     }
 
-    public void exportTasksCsv(HttpServletResponse response) throws IOException {
-        User user = getCurrentUser();
-        List<Task> tasks = taskRepository.findByUser(user);
-
-        response.setContentType("text/csv");
-        response.setHeader(
-                "Content-Disposition",
-                "attachment; filename=tasks.csv"
-        );
-
-        PrintWriter writer = response.getWriter();
-
-        // CSV Header
-        writer.println("id,title,created_at,is_active,has_subtasks");
-
-        // CSV Rows
-        for (Task task : tasks) {
-            writer.printf(
-                    "%d,\"%s\",%b,%s%n",
-                    task.getId(),
-                    task.getTitle().replace("\"", "\"\""),
-                    task.getCreatedAt(),
-                    task.getIsActive(),
-                    task.getHasSubtasks()
-            );
-        }
-
-        writer.flush();
-    }
-
-    public void exportTaskCompletionsCsv(HttpServletResponse response) throws IOException {
+    @Transactional(readOnly = true)
+    public void exportTasksCsv(HttpServletResponse response, boolean gzip) throws IOException {
         User user = getCurrentUser();
-        List<TaskCompletions> completions =
-                completionRepository.findByTaskUser(user);
 
-        response.setContentType("text/csv");
-        response.setHeader(
-                "Content-Disposition",
-                "attachment; filename=task_completions.csv"
-        );
+        prepareCsvResponse(response, "tasks.csv", gzip);
 
-        PrintWriter writer = response.getWriter();
+        try (CsvStreamWriter writer = new CsvStreamWriter(response.getOutputStream(), gzip);
+             Stream<TaskExportRow> tasks = taskRepository.streamExportRowsByUser(user)) {
 
-        // CSV Header
-        writer.println("id,task_id,completed_date,created_at");
-
-        for (TaskCompletions tc : completions) {
-            writer.printf(
-                    "%d,%d,%s,%s%n",
-                    tc.getId(),
-                    tc.getTask().getId(),
-                    tc.getCompletedDate(),
-                    tc.getCreatedAt()
-            );
+            // CSV Header
+            writer.header("id,title,created_at,is_active,has_subtasks");
 
+            // CSV Rows
+            for (TaskExportRow task : (Iterable<TaskExportRow>) tasks::iterator) {
+                writer.value(task.id())
+                        .quoted(task.title())
+                        .value(task.createdAt())
+                        .value(task.isActive())
+                        .value(task.hasSubtasks())
+                        .endRow();
+            }
         }
-
-        writer.flush();
     }
 
-    @Transactional
-    public Map<Integer, Integer> importTasksCsv(MultipartFile file) throws IOException {
-
+    @Transactional(readOnly = true)
+    public void exportTaskCompletionsCsv(HttpServletResponse response, boolean gzip) throws IOException {
         User user = getCurrentUser();
-        Map<Integer, Integer> taskIdMapping = new HashMap<>();
-
-        BufferedReader reader =
-                new BufferedReader(new InputStreamReader(file.getInputStream()));
-
-        // ===== HEADER =====
-        String headerLine = reader.readLine();
-        if (headerLine == null) {
-            throw new IllegalArgumentException("CSV file is empty");
-        }
-
-        String[] headers = headerLine.split(",");
-        Map<String, Integer> headerIndex = new HashMap<>();
-
-        for (int i = 0; i < headers.length; i++) {
-            String normalized =
-                    headers[i]
-                            .trim()
-                            .toLowerCase()
-                            .replace("_", "")
-                            .replace(" ", "");
-            headerIndex.put(normalized, i);
-        }
 
-        // ===== REQUIRED (ID OPTIONAL NOW) =====
-        if (!headerIndex.containsKey("title")) {
-            throw new IllegalArgumentException("CSV must contain title column");
-        }
-
-        String line;
-        while ((line = reader.readLine()) != null) {
-
-            if (line.isBlank()) continue;
-
-            String[] cols =
-                    line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-
-            // ---------- OLD TASK ID (OPTIONAL) ----------
-            Integer oldTaskId = null;
-            if (headerIndex.containsKey("id")) {
-                String idRaw = cols[headerIndex.get("id")].trim();
-                if (!idRaw.isEmpty()) {
-                    try {
-                        oldTaskId = Integer.parseInt(idRaw);
-                    } catch (NumberFormatException ignored) {
-                    }
-                }
-            }
-
-            // ---------- TITLE ----------
-            String title =
-                    cols[headerIndex.get("title")]
-                            .replace("\"", "")
-                            .trim();
-
-            if (title.isEmpty()) continue; // skip invalid rows
-
-            // ---------- CREATED AT ----------
-            Instant createdAt = Instant.now();
-            if (headerIndex.containsKey("createdat")) {
-                String createdAtRaw =
-                        cols[headerIndex.get("createdat")].trim();
-                try {
-                    if (!createdAtRaw.isEmpty()) {
-                        createdAt = Instant.parse(createdAtRaw);
-                    }
-                } catch (Exception ignored) {
-                }
-            }
-
-            // ---------- IS ACTIVE ----------
-            boolean isActive = true;
-            if (headerIndex.containsKey("isactive")) {
-                isActive = Boolean.parseBoolean(
-                        cols[headerIndex.get("isactive")].trim()
-                );
-            }
+        prepareCsvResponse(response, "task_completions.csv", gzip);
 
-            Task task = new Task();
-            task.setUser(user);
-            task.setTitle(title);
-            task.setCreatedAt(createdAt);
-            task.setIsActive(isActive);
+        try (CsvStreamWriter writer = new CsvStreamWriter(response.getOutputStream(), gzip);
+             Stream<TaskCompletionExportRow> completions = completionRepository.streamExportRowsByUser(user)) {
 
-            Task savedTask = taskRepository.save(task);
+            // CSV Header
+            writer.header("id,task_id,completed_date,created_at");
 
-            // ---------- MAPPING ONLY IF ID EXISTS ----------
-            if (oldTaskId != null) {
-                taskIdMapping.put(oldTaskId, savedTask.getId());
+            for (TaskCompletionExportRow tc : (Iterable<TaskCompletionExportRow>) completions::iterator) {
+                writer.value(tc.id())
+                        .value(tc.taskId())
+                        .value(tc.completedDate())
+                        .value(tc.createdAt())
+                        .endRow();
             }
         }
-
-        return taskIdMapping;
     }
 
-    @Transactional
-    public void importTaskCompletionsCsv(
-            MultipartFile file,
-            Map<Integer, Integer> taskIdMapping
-    ) throws IOException {
-
-        BufferedReader reader =
-                new BufferedReader(new InputStreamReader(file.getInputStream()));
-
-        String headerLine = reader.readLine();
-        if (headerLine == null) return;
-
-        String[] headers = headerLine.split(",");
-        Map<String, Integer> headerIndex = new HashMap<>();
-
-        for (int i = 0; i < headers.length; i++) {
-            String normalized =
-                    headers[i]
-                            .trim()
-                            .toLowerCase()
-                            .replace("_", "")
-                            .replace(" ", "");
-            headerIndex.put(normalized, i);
-        }
-
-        if (!headerIndex.containsKey("taskid")
-                || !headerIndex.containsKey("completeddate")) {
-            throw new IllegalArgumentException(
-                    "CSV must contain taskId and completedDate columns"
-            );
-        }
-
-        String line;
-        while ((line = reader.readLine()) != null) {
-            if (line.trim().isEmpty()) continue; // skip empty lines
-
-            String[] cols = line.split(",");
-
-            // Skip if columns are fewer than expected
-            if (cols.length < headers.length) continue;
-
-            try {
-                Integer oldTaskId = Integer.parseInt(cols[headerIndex.get("taskid")].trim());
-                LocalDate completedDate = LocalDate.parse(cols[headerIndex.get("completeddate")].trim());
-
-                Integer newTaskId = taskIdMapping.get(oldTaskId);
-                if (newTaskId == null) continue;
-
-                Task task = taskRepository.findById(newTaskId).orElseThrow();
-
-                if (!completionRepository.existsByTaskAndCompletedDate(task, completedDate)) {
-                    TaskCompletions tc = new TaskCompletions();
-                    tc.setTask(task);
-                    tc.setCompletedDate(completedDate);
-                    completionRepository.save(tc);
-                }
-            } catch (Exception e) {
-                // skip lines with parsing errors
-                continue;
-            }
+    private void prepareCsvResponse(HttpServletResponse response, String fileName, boolean gzip) {
+        response.setContentType("text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(
+                "Content-Disposition",
+                "attachment; filename=" + fileName
+        );
+        response.setHeader("Vary", "Accept-Encoding");
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
         }
-
     }
 
     public Map<String, Long> getTaskFrequencyPerWeek(Integer taskId, PeriodType periodType, String monthOrYear) {
         User user = getCurrentUser();
 
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
+        Task task = taskRepository.findByIdAndUserId(taskId, user.getId())
                 .orElseThrow(() -> new RuntimeException("Task not found"));
 
-        List<TaskCompletions> completions;
+        return weekdayFrequency(completionIndex.forTask(task.getId()), periodType, monthOrYear);
+    }
+
+    private static Map<String, Long> weekdayFrequency(CompletionBitmap completed, PeriodType periodType,
+                                                      String monthOrYear) {
+        long[] perDay;
         LocalDate start = null;
         LocalDate end = null;
         LocalDate today = LocalDate.now();
@@ -568,32 +571,23 @@ public class TaskService {
                 YearMonth ym = monthOrYear != null ? YearMonth.parse(monthOrYear) : YearMonth.now();
                 start = ym.atDay(1);
                 end = ym.atEndOfMonth();
-                completions = completionRepository.findByTaskAndCompletedDateBetween(task, start, end);
+                perDay = completed.countByDayOfWeek(start, end);
             }
             case YEARLY -> {
                 int year = monthOrYear != null ? Integer.parseInt(monthOrYear) : today.getYear();
                 start = LocalDate.of(year, 1, 1);
                 end = LocalDate.of(year, 12, 31);
-                completions = completionRepository.findByTaskAndCompletedDateBetween(task, start, end);
+                perDay = completed.countByDayOfWeek(start, end);
             }
-            case ALL_TIME -> completions = completionRepository.findByTask(task);
+            case ALL_TIME -> perDay = completed.countByDayOfWeek();
             default -> throw new IllegalArgumentException("Unsupported period type");
         }
 
-        // Initialize weekdays in order
+        // Weekdays in order, starting on Sunday
         Map<String, Long> frequency = new LinkedHashMap<>();
-        frequency.put("SUNDAY", 0L);
-        frequency.put("MONDAY", 0L);
-        frequency.put("TUESDAY", 0L);
-        frequency.put("WEDNESDAY", 0L);
-        frequency.put("THURSDAY", 0L);
-        frequency.put("FRIDAY", 0L);
-        frequency.put("SATURDAY", 0L);
-
-        // Count completions per day
-        for (TaskCompletions tc : completions) {
-            DayOfWeek day = tc.getCompletedDate().getDayOfWeek();
-            frequency.put(day.name(), frequency.get(day.name()) + 1);
+        frequency.put("SUNDAY", perDay[DayOfWeek.SUNDAY.ordinal()]);
+        for (DayOfWeek day = DayOfWeek.MONDAY; day != DayOfWeek.SUNDAY; day = day.plus(1)) {
+            frequency.put(day.name(), perDay[day.ordinal()]);
         }
 
         return frequency;
@@ -601,23 +595,21 @@ public class TaskService {
 
     public TaskFullStatsResponse getTaskFullStats(Integer taskId) {
 
-        User user = getCurrentUser();
+        UUID userId = currentUserResolver.currentUserId();
 
-        Task task = taskRepository.findById(taskId)
-                .filter(t -> t.getUser().getId().equals(user.getId()))
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        if (!taskRepository.existsByIdAndUserId(taskId, userId)) {
+            throw new RuntimeException("Task not found");
+        }
 
-        // ---------- COMPLETIONS ----------
-        List<TaskCompletions> completions =
-                completionRepository.findByTaskOrderByCompletedDateDesc(task);
+        // Everything below derives from the task's completion history
+        CompletionBitmap completed = completionIndex.forTask(taskId);
 
         // ---------- CURRENT MONTH ----------
         YearMonth currentMonth = YearMonth.now();
         LocalDate cmStart = currentMonth.atDay(1);
         LocalDate cmEnd = currentMonth.atEndOfMonth();
 
-        long completedCurrentMonth =
-                completionRepository.countByTaskAndCompletedDateBetween(task, cmStart, cmEnd);
+        long completedCurrentMonth = completed.count(cmStart, cmEnd);
 
         int totalDaysCurrentMonth = currentMonth.lengthOfMonth();
 
@@ -630,8 +622,7 @@ public class TaskService {
         LocalDate pmStart = previousMonth.atDay(1);
         LocalDate pmEnd = previousMonth.atEndOfMonth();
 
-        long completedPreviousMonth =
-                completionRepository.countByTaskAndCompletedDateBetween(task, pmStart, pmEnd);
+        long completedPreviousMonth = completed.count(pmStart, pmEnd);
 
         double monthOverMonthChangePercentage =
                 completedPreviousMonth == 0
@@ -640,56 +631,25 @@ public class TaskService {
                         / completedPreviousMonth;
 
         // ---------- TOTAL COMPLETED ----------
-        long totalCompletedDays = completionRepository.countByTask(task);
+        long totalCompletedDays = completed.count();
 
         // ---------- CURRENT STREAK ----------
-        int currentStreak = 0;
-        LocalDate currentFrom = null;
-        LocalDate currentTo = null;
-
-        LocalDate expectedDate = LocalDate.now();
-
-        for (TaskCompletions tc : completions) {
-            if (tc.getCompletedDate().equals(expectedDate)) {
-                currentStreak++;
-                currentTo = currentTo == null ? expectedDate : currentTo;
-                currentFrom = expectedDate;
-                expectedDate = expectedDate.minusDays(1);
-            } else {
-                break;
-            }
-        }
-
-        // ---------- BEST STREAK (OVERALL) ----------
-        int bestStreak = 0;
-        int tempStreak = 0;
-        LocalDate tempFrom = null;
-        LocalDate tempTo = null;
-
-        LocalDate bestFrom = null;
-        LocalDate bestTo = null;
-
-        for (int i = 0; i < completions.size(); i++) {
+        // Only a run ending today counts; completions dated after today break it
+        CompletionBitmap.Run current = LocalDate.now().equals(completed.last())
+                ? completed.runContaining(completed.last())
+                : null;
 
-            LocalDate date = completions.get(i).getCompletedDate();
+        int currentStreak = current == null ? 0 : current.days();
+        LocalDate currentFrom = current == null ? null : current.from();
+        LocalDate currentTo = current == null ? null : current.to();
 
-            if (i == 0 || date.equals(completions.get(i - 1).getCompletedDate().minusDays(1))) {
-                tempStreak++;
-                tempTo = tempTo == null ? date : tempTo;
-                tempFrom = date;
-            } else {
-                tempStreak = 1;
-                tempFrom = date;
-                tempTo = date;
-            }
+        // ---------- BEST STREAK (OVERALL) ----------
+        CompletionBitmap.Run best = completed.bestRun();
+        int bestStreak = best == null ? 0 : best.days();
+        LocalDate bestFrom = best == null ? null : best.from();
+        LocalDate bestTo = best == null ? null : best.to();
 
-            if (tempStreak > bestStreak) {
-                bestStreak = tempStreak;
-                bestFrom = tempFrom;
-                bestTo = tempTo;
-            }
-        }
-        Map<String, Long> frequency = getTaskFrequencyPerWeek(taskId, PeriodType.ALL_TIME, null);
+        Map<String, Long> frequency = weekdayFrequency(completed, PeriodType.ALL_TIME, null);
         return new TaskFullStatsResponse(
                 Math.round(completionPercentageCurrentMonth * 100.0) / 100.0,
                 Math.round(monthOverMonthChangePercentage * 100.0) / 100.0,
@@ -710,147 +670,62 @@ public class TaskService {
 
         User user = getCurrentUser();
 
-        List<Task> tasks = taskRepository.findByUserAndIsActiveTrue(user);
-        List<TaskCompletions> completions = completionRepository.findByTaskUser(user);
-
-        // 1️⃣ OVERALL COMPLETIONS
-        long totalCompletions = completions.size();
-
-        // 2️⃣ HIGHEST TASK COMPLETION
-        Map<Task, Long> taskCompletionCount =
-                completions.stream()
-                        .collect(Collectors.groupingBy(
-                                TaskCompletions::getTask,
-                                Collectors.counting()
-                        ));
-
-        InsightsResponse.HighestTaskCompletion highestTaskCompletion = null;
-
-        if (!taskCompletionCount.isEmpty()) {
-            Map.Entry<Task, Long> maxEntry =
-                    taskCompletionCount.entrySet()
-                            .stream()
-                            .max(Map.Entry.comparingByValue())
-                            .orElseThrow();
-
-            highestTaskCompletion =
-                    new InsightsResponse.HighestTaskCompletion(
-                            maxEntry.getKey().getId(),
-                            maxEntry.getKey().getTitle(),
-                            maxEntry.getValue()
-                    );
+        // All tasks, so the top task can be named even if it was deactivated
+        Map<Integer, Task> tasksById = new HashMap<>();
+        taskRepository.findByUser(user).forEach(task -> tasksById.put(task.getId(), task));
+
+        List<Task> activeTasks = tasksById.values().stream()
+                .filter(Task::getIsActive)
+                .toList();
+        int[] activeTaskIds = new int[activeTasks.size()];
+        int[] activeCreatedDays = new int[activeTasks.size()];
+        for (int i = 0; i < activeTasks.size(); i++) {
+            activeTaskIds[i] = activeTasks.get(i).getId();
+            activeCreatedDays[i] = (int) activeTasks.get(i).getCreatedAt()
+                    .atZone(ZoneId.systemDefault())
+                    .toLocalDate()
+                    .toEpochDay();
         }
 
-        // 3️⃣ HIGHEST STREAK (ACROSS ALL TASKS)
-        int highestStreak = 0;
-        Task highestStreakTask = null;
+        // Totals, top task, best streak, perfect days and consistency in one pass
+        CompletionInsights insights = CompletionInsights.compute(
+                completionRepository.findCompletionDaysByUserId(user.getId()),
+                activeTaskIds,
+                activeCreatedDays,
+                (int) LocalDate.now().toEpochDay()
+        );
 
-        for (Task task : tasks) {
-            int streak = getTaskBestStreak(task);
-            if (streak > highestStreak) {
-                highestStreak = streak;
-                highestStreakTask = task;
-            }
-        }
+        InsightsResponse.HighestTaskCompletion highestTaskCompletion =
+                insights.topTaskId() < 0
+                        ? null
+                        : new InsightsResponse.HighestTaskCompletion(
+                        insights.topTaskId(),
+                        tasksById.get(insights.topTaskId()).getTitle(),
+                        insights.topTaskCount()
+                );
 
-        InsightsResponse.HighestStreak highestStreakDto =
-                highestStreakTask == null
+        InsightsResponse.HighestStreak highestStreak =
+                insights.streakTaskId() < 0
                         ? null
                         : new InsightsResponse.HighestStreak(
-                        highestStreakTask.getId(),
-                        highestStreakTask.getTitle(),
-                        highestStreak
+                        insights.streakTaskId(),
+                        tasksById.get(insights.streakTaskId()).getTitle(),
+                        insights.bestStreak()
                 );
 
-        // 4️⃣ PERFECT DAYS (ALL TASKS COMPLETED)
-        long perfectDays = calculatePerfectDays(user, tasks);
-
-        // 5️⃣ MEMBER DAYS
         long memberDays =
                 ChronoUnit.DAYS.between(
                         user.getCreatedAt().atZone(ZoneId.systemDefault()).toLocalDate(),
                         LocalDate.now()
                 ) + 1;
 
-        // 6️⃣ CONSISTENCY %
-        long totalAvailableDays = 0;
-        for (Task task : tasks) {
-            LocalDate createdDate =
-                    task.getCreatedAt()
-                            .atZone(ZoneId.systemDefault())
-                            .toLocalDate();
-
-            totalAvailableDays +=
-                    ChronoUnit.DAYS.between(createdDate, LocalDate.now()) + 1;
-        }
-
-        double consistencyPercentage =
-                totalAvailableDays == 0
-                        ? 0
-                        : Math.round((totalCompletions * 10000.0) / totalAvailableDays) / 100.0;
-
         return new InsightsResponse(
-                totalCompletions,
+                insights.totalCompletions(),
                 highestTaskCompletion,
-                highestStreakDto,
-                perfectDays,
+                highestStreak,
+                insights.perfectDays(),
                 memberDays,
-                consistencyPercentage
+                insights.consistencyPercentage()
         );
     }
-
-    private int getTaskBestStreak(Task task) {
-
-        List<LocalDate> dates =
-                completionRepository.findByTaskOrderByCompletedDateDesc(task)
-                        .stream()
-                        .map(TaskCompletions::getCompletedDate)
-                        .toList();
-
-        int best = 0;
-        int current = 0;
-
-        for (int i = 0; i < dates.size(); i++) {
-            if (i == 0 || dates.get(i).equals(dates.get(i - 1).minusDays(1))) {
-                current++;
-            } else {
-                current = 1;
-            }
-            best = Math.max(best, current);
-        }
-
-        return best;
-    }
-
-
-    private long calculatePerfectDays(User user, List<Task> tasks) {
-
-        if (tasks.isEmpty()) return 0;
-
-        Map<LocalDate, Long> completionPerDay =
-                completionRepository.findByTaskUser(user)
-                        .stream()
-                        .collect(Collectors.groupingBy(
-                                TaskCompletions::getCompletedDate,
-                                Collectors.mapping(
-                                        tc -> tc.getTask().getId(),
-                                        Collectors.toSet()
-                                )
-                        ))
-                        .entrySet()
-                        .stream()
-                        .collect(Collectors.toMap(
-                                Map.Entry::getKey,
-                                e -> (long) e.getValue().size()
-                        ));
-
-        long totalTasks = tasks.size();
-
-        return completionPerDay.values()
-                .stream()
-                .filter(count -> count == totalTasks)
-                .count();
-    }
-
-
 }
@@ -0,0 +1,174 @@
+package com.app.service;
+
+import com.app.model.TaskStreak;
+import com.app.repository.TaskStreakRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps the persisted {@link TaskStreak} summary of each task up to date.
+ * <p>
+ * The summary holds the latest and the best run of completed days. Writes lock
+ * the row, then read the history under that lock; the latest run is recomputed,
+ * the best run only when the changed day can affect it. Reads never walk the
+ * history.
+ */
+@Service
+public class TaskStreakService {
+
+    private final TaskStreakRepository streakRepository;
+    private final TaskCompletionIndex completionIndex;
+
+    public TaskStreakService(TaskStreakRepository streakRepository,
+                             TaskCompletionIndex completionIndex) {
+        this.streakRepository = streakRepository;
+        this.completionIndex = completionIndex;
+    }
+
+    @Transactional
+    public TaskStreak getSummary(Integer taskId) {
+        return streakRepository.findById(taskId)
+                .orElseGet(() -> backfill(taskId));
+    }
+
+    @Transactional
+    public Map<Integer, TaskStreak> getSummaries(Collection<Integer> taskIds) {
+        Map<Integer, TaskStreak> summaries = new HashMap<>();
+        streakRepository.findAllById(taskIds)
+                .forEach(streak -> summaries.put(streak.getTaskId(), streak));
+
+        for (Integer taskId : taskIds) {
+            summaries.computeIfAbsent(taskId, this::backfill);
+        }
+        return summaries;
+    }
+
+    /**
+     * Current streak as of {@code today}: the run of completed days ending today.
+     */
+    public int getCurrentStreak(Integer taskId, LocalDate today) {
+        TaskStreak streak = getSummary(taskId);
+        LocalDate last = streak.getLastCompletedDate();
+
+        if (last == null || last.isBefore(today)) return 0;
+        if (last.equals(today)) return streak.getCurrentStreak();
+
+        // Completions exist after today, so the summary's latest run may not be today's
+        CompletionBitmap.Run run = completionIndex.forTask(taskId).runContaining(today);
+        return run == null ? 0 : (int) (today.toEpochDay() - run.from().toEpochDay()) + 1;
+    }
+
+    @Transactional
+    public void recordCompleted(Integer taskId, LocalDate date) {
+        TaskStreak streak = lockOrInsert(taskId, completed -> completed.with(date));
+        if (streak == null) return;
+
+        CompletionBitmap completed = completionIndex.load(taskId).with(date);
+        setLatest(streak, completed);
+
+        // Adding a day can only grow (or merge into) the run that contains it
+        CompletionBitmap.Run run = completed.runContaining(date);
+        if (run.days() > streak.getBestStreak()
+                || (run.days() == streak.getBestStreak() && run.to().isAfter(streak.getBestTo()))) {
+            setBest(streak, run);
+        }
+
+        streak.setUpdatedAt(Instant.now());
+    }
+
+    @Transactional
+    public void recordUndone(Integer taskId, LocalDate date) {
+        TaskStreak streak = lockOrInsert(taskId, completed -> completed.without(date));
+        if (streak == null) return;
+
+        CompletionBitmap completed = completionIndex.load(taskId).without(date);
+        setLatest(streak, completed);
+
+        // Removing a day splits the run that contained it; only a split best run needs a scan
+        if (within(date, streak.getBestFrom(), streak.getBestTo())) {
+            setBest(streak, completed.bestRun());
+        }
+
+        streak.setUpdatedAt(Instant.now());
+    }
+
+    /**
+     * Locks the task's summary, so the history read afterwards includes every
+     * earlier write to the task. Returns null when there was no summary and
+     * this call inserted a complete one with {@code change} applied.
+     */
+    private TaskStreak lockOrInsert(Integer taskId, UnaryOperator<CompletionBitmap> change) {
+        TaskStreak streak = streakRepository.findForUpdate(taskId).orElse(null);
+        if (streak != null) return streak;
+
+        // An inserted row stays locked until commit; if another writer inserted it first, lock theirs
+        TaskStreak summary = summarize(taskId, change.apply(completionIndex.load(taskId)));
+        if (streakRepository.insertIfAbsent(summary) > 0) return null;
+        return streakRepository.findForUpdate(taskId).orElseThrow();
+    }
+
+    /**
+     * Drops summaries after bulk changes; they are rebuilt on next read.
+     */
+    @Transactional
+    public void invalidate(Collection<Integer> taskIds) {
+        streakRepository.deleteAllByIdInBatch(taskIds);
+    }
+
+    @Transactional
+    public void delete(Integer taskId) {
+        streakRepository.deleteAllByIdInBatch(List.of(taskId));
+    }
+
+    private TaskStreak backfill(Integer taskId) {
+        TaskStreak streak = summarize(taskId, completionIndex.forTask(taskId));
+
+        // Read-only (or non-transactional) callers still get the summary; it is persisted by the next writable call
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            streakRepository.insertIfAbsent(streak);
+        }
+        return streak;
+    }
+
+    private static TaskStreak summarize(Integer taskId, CompletionBitmap completed) {
+        TaskStreak streak = new TaskStreak();
+        streak.setTaskId(taskId);
+
+        setLatest(streak, completed);
+        setBest(streak, completed.bestRun());
+        streak.setUpdatedAt(Instant.now());
+        return streak;
+    }
+
+    private static void setLatest(TaskStreak streak, CompletionBitmap completed) {
+        LocalDate last = completed.last();
+        setCurrent(streak, last == null ? null : completed.runContaining(last));
+    }
+
+    private static void setCurrent(TaskStreak streak, CompletionBitmap.Run run) {
+        streak.setCurrentStreak(run == null ? 0 : run.days());
+        streak.setCurrentFrom(run == null ? null : run.from());
+        streak.setCurrentTo(run == null ? null : run.to());
+        streak.setLastCompletedDate(run == null ? null : run.to());
+    }
+
+    private static void setBest(TaskStreak streak, CompletionBitmap.Run run) {
+        streak.setBestStreak(run == null ? 0 : run.days());
+        streak.setBestFrom(run == null ? null : run.from());
+        streak.setBestTo(run == null ? null : run.to());
+    }
+
+    private static boolean within(LocalDate date, LocalDate from, LocalDate to) {
+        return from != null && !date.isBefore(from) && !date.isAfter(to);
+    }
+}
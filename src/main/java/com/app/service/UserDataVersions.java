@@ -0,0 +1,56 @@
+package com.app.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user data version, moved forward by every task or subtask write once it
+ * commits, so reads can be answered with a strong ETag without touching the DB.
+ * <p>
+ * Versions come from one counter and are never reused: a user seen for the
+ * first time (or evicted since) gets a fresh one, and the ETag also carries
+ * this instance's start time, so a restart cannot bring back an old tag.
+ */
+@Component
+public class UserDataVersions {
+
+    private final String instance = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong clock = new AtomicLong();
+    private final LruMap<UUID, Long> versions;
+
+    public UserDataVersions(@Value("${trackify.data-versions.max-users:100000}") int maxUsers) {
+        this.versions = new LruMap<>(maxUsers);
+    }
+
+    public long current(UUID userId) {
+        Long version = versions.get(userId);
+        if (version != null) return version;
+
+        long fresh = clock.incrementAndGet();
+        Long existing = versions.putIfAbsent(userId, fresh);
+        return existing != null ? existing : fresh;
+    }
+
+    /**
+     * Strong ETag for the user's data as of {@code today}; reads such as the
+     * current month or streak change at midnight without a write.
+     *
+     * @param representation tells apart other encodings of the same URL, or {@code null}
+     */
+    public String etag(UUID userId, LocalDate today, String representation) {
+        String tag = instance + "-" + current(userId) + "-" + today.toEpochDay();
+        return "\"" + (representation == null ? tag : tag + "-" + representation) + "\"";
+    }
+
+    /**
+     * Moves the user's version forward once the surrounding transaction (if any)
+     * commits, so a read never pairs the new version with uncommitted data.
+     */
+    public void bump(UUID userId) {
+        AfterCommit.run(() -> versions.merge(userId, clock.incrementAndGet(), Math::max));
+    }
+}
@@ -0,0 +1,31 @@
+-- Summary tables maintained by the completion write paths. They start empty:
+-- streak summaries are filled in on first read of each task, and the rollups
+-- are backfilled from task_completions when the application starts.
+
+create table task_streaks (
+    task_id             integer not null,
+    current_streak      integer not null,
+    current_from        date,
+    current_to          date,
+    best_streak         integer not null,
+    best_from           date,
+    best_to             date,
+    last_completed_date date,
+    updated_at          timestamp(6) with time zone,
+    constraint task_streaks_pkey primary key (task_id)
+);
+
+-- Rollup reads filter on the owning id and scan a date range
+create table task_month_rollups (
+    task_id        integer not null,
+    month_start    date    not null,
+    completed_days integer not null,
+    constraint task_month_rollups_pkey primary key (task_id, month_start)
+);
+
+create table user_day_rollups (
+    user_id         uuid    not null,
+    completed_date  date    not null,
+    completed_tasks integer not null,
+    constraint user_day_rollups_pkey primary key (user_id, completed_date)
+);
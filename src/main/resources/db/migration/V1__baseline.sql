@@ -0,0 +1,53 @@
+-- Schema as it was generated by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version and start from V1.1.
+
+create table users (
+    id              uuid         not null,
+    email           varchar(255) not null,
+    name            varchar(255),
+    profile_picture varchar(255),
+    created_at      timestamp(6) with time zone not null,
+    constraint users_pkey primary key (id),
+    constraint users_email_key unique (email)
+);
+
+create table tasks (
+    id           integer generated by default as identity,
+    user_id      uuid         not null,
+    title        varchar(255) not null,
+    created_at   timestamp(6) with time zone,
+    is_active    boolean,
+    has_subtasks boolean      not null,
+    constraint tasks_pkey primary key (id),
+    constraint tasks_user_id_fkey foreign key (user_id) references users (id)
+);
+
+create table task_completions (
+    id             integer generated by default as identity,
+    task_id        integer not null,
+    completed_date date    not null,
+    created_at     timestamp(6) with time zone,
+    constraint task_completions_pkey primary key (id),
+    constraint task_completions_task_id_completed_date_key unique (task_id, completed_date),
+    constraint task_completions_task_id_fkey foreign key (task_id) references tasks (id)
+);
+
+create table subtasks (
+    id         integer generated by default as identity,
+    task_id    integer      not null,
+    title      varchar(255) not null,
+    created_at timestamp(6) with time zone,
+    is_active  boolean,
+    constraint subtasks_pkey primary key (id),
+    constraint subtasks_task_id_fkey foreign key (task_id) references tasks (id)
+);
+
+create table subtask_completions (
+    id             integer generated by default as identity,
+    subtask_id     integer not null,
+    completed_date date    not null,
+    created_at     timestamp(6) with time zone,
+    constraint subtask_completions_pkey primary key (id),
+    constraint subtask_completions_subtask_id_completed_date_key unique (subtask_id, completed_date),
+    constraint subtask_completions_subtask_id_fkey foreign key (subtask_id) references subtasks (id)
+);
@@ -0,0 +1,55 @@
+-- Indexes for the repository query shapes.
+-- Every read is scoped by owner (user_id) or parent (task_id / subtask_id),
+-- so each index leads with that column.
+
+-- Databases created by ddl-auto before the completion constraints were fixed may
+-- lack the (parent, completed_date) uniqueness that ON CONFLICT relies on
+do $$
+begin
+    if not exists (select 1
+                   from pg_index i
+                   where i.indrelid = 'task_completions'::regclass
+                     and i.indisunique
+                     and i.indkey::text = (select string_agg(a.attnum::text, ' ' order by k.ord)
+                                           from unnest(array['task_id', 'completed_date']) with ordinality k(name, ord)
+                                           join pg_attribute a on a.attrelid = 'task_completions'::regclass
+                                                              and a.attname = k.name)) then
+        delete from task_completions tc
+        using task_completions dup
+        where dup.task_id = tc.task_id
+          and dup.completed_date = tc.completed_date
+          and dup.id < tc.id;
+
+        alter table task_completions
+            add constraint task_completions_task_id_completed_date_key unique (task_id, completed_date);
+    end if;
+
+    if not exists (select 1
+                   from pg_index i
+                   where i.indrelid = 'subtask_completions'::regclass
+                     and i.indisunique
+                     and i.indkey::text = (select string_agg(a.attnum::text, ' ' order by k.ord)
+                                           from unnest(array['subtask_id', 'completed_date']) with ordinality k(name, ord)
+                                           join pg_attribute a on a.attrelid = 'subtask_completions'::regclass
+                                                              and a.attname = k.name)) then
+        delete from subtask_completions sc
+        using subtask_completions dup
+        where dup.subtask_id = sc.subtask_id
+          and dup.completed_date = sc.completed_date
+          and dup.id < sc.id;
+
+        alter table subtask_completions
+            add constraint subtask_completions_subtask_id_completed_date_key unique (subtask_id, completed_date);
+    end if;
+end
+$$;
+
+-- findByUser*, findIdsByUserAndIdIn and the user-scoped completion joins;
+-- the trailing columns serve findByUserAndIsActiveTrueOrderByCreatedAtDesc
+create index tasks_user_id_is_active_created_at_idx
+    on tasks (user_id, is_active, created_at desc);
+
+-- findByTaskAndIsActiveTrueOrderByCreatedAtDesc, countByTask and the
+-- user-scoped subtask lookups joined through tasks
+create index subtasks_task_id_is_active_created_at_idx
+    on subtasks (task_id, is_active, created_at desc);
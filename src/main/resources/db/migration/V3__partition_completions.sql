@@ -0,0 +1,114 @@
+-- Range-partitions task_completions and subtask_completions by calendar year.
+-- Date-filtered reads and single-day writes only touch the matching year;
+-- dates outside every yearly partition land in the _default partition.
+-- CompletionPartitionService creates upcoming years ahead of time.
+
+-- Creates <parent>_y<year> for [year-01-01, year+1-01-01), first moving any
+-- rows for that year out of the default partition. Returns false if it exists.
+create function create_completion_partition(parent text, year int) returns boolean
+    language plpgsql as
+$$
+declare
+    -- Partitions live next to their parent, whatever the search_path
+    parent_schema  text := (select relnamespace::regnamespace::text from pg_class where oid = parent::regclass);
+    partition_name text := parent || '_y' || year;
+    range_from     date := make_date(year, 1, 1);
+    range_to       date := make_date(year + 1, 1, 1);
+begin
+    if to_regclass(format('%I.%I', parent_schema, partition_name)) is not null then
+        return false;
+    end if;
+
+    execute format('create table %I.%I (like %I.%I including defaults)',
+                   parent_schema, partition_name, parent_schema, parent);
+    execute format('with moved as (delete from %I.%I where completed_date >= %L and completed_date < %L returning *) '
+                       || 'insert into %I.%I select * from moved',
+                   parent_schema, parent || '_default', range_from, range_to, parent_schema, partition_name);
+    execute format('alter table %I.%I attach partition %I.%I for values from (%L) to (%L)',
+                   parent_schema, parent, parent_schema, partition_name, range_from, range_to);
+    return true;
+end
+$$;
+
+-- ===== task_completions =====
+
+alter table task_completions rename to task_completions_unpartitioned;
+alter table task_completions_unpartitioned rename constraint task_completions_pkey to task_completions_unpartitioned_pkey;
+alter table task_completions_unpartitioned drop constraint task_completions_task_id_completed_date_key;
+alter table task_completions_unpartitioned drop constraint task_completions_task_id_fkey;
+
+-- The partition key has to be part of every unique constraint, primary key included
+create table task_completions (
+    id             integer generated by default as identity,
+    task_id        integer not null,
+    completed_date date    not null,
+    created_at     timestamp(6) with time zone,
+    constraint task_completions_pkey primary key (id, completed_date),
+    constraint task_completions_task_id_completed_date_key unique (task_id, completed_date),
+    constraint task_completions_task_id_fkey foreign key (task_id) references tasks (id)
+) partition by range (completed_date);
+
+create table task_completions_default partition of task_completions default;
+
+-- ===== subtask_completions =====
+
+alter table subtask_completions rename to subtask_completions_unpartitioned;
+alter table subtask_completions_unpartitioned rename constraint subtask_completions_pkey to subtask_completions_unpartitioned_pkey;
+alter table subtask_completions_unpartitioned drop constraint subtask_completions_subtask_id_completed_date_key;
+alter table subtask_completions_unpartitioned drop constraint subtask_completions_subtask_id_fkey;
+
+create table subtask_completions (
+    id             integer generated by default as identity,
+    subtask_id     integer not null,
+    completed_date date    not null,
+    created_at     timestamp(6) with time zone,
+    constraint subtask_completions_pkey primary key (id, completed_date),
+    constraint subtask_completions_subtask_id_completed_date_key unique (subtask_id, completed_date),
+    constraint subtask_completions_subtask_id_fkey foreign key (subtask_id) references subtasks (id)
+) partition by range (completed_date);
+
+create table subtask_completions_default partition of subtask_completions default;
+
+-- ===== yearly partitions and data =====
+
+-- Every year with data in the last two decades, plus this year and next;
+-- anything older or further out stays in the default partitions
+do $$
+declare
+    current_year int := extract(year from current_date)::int;
+    year         int;
+begin
+    for year in
+        select distinct extract(year from completed_date)::int
+        from task_completions_unpartitioned
+        union
+        select distinct extract(year from completed_date)::int
+        from subtask_completions_unpartitioned
+        union
+        select generate_series(current_year, current_year + 1)
+    loop
+        if year between current_year - 20 and current_year + 1 then
+            perform create_completion_partition('task_completions', year);
+            perform create_completion_partition('subtask_completions', year);
+        end if;
+    end loop;
+end
+$$;
+
+insert into task_completions (id, task_id, completed_date, created_at)
+overriding system value
+select id, task_id, completed_date, created_at
+from task_completions_unpartitioned;
+
+insert into subtask_completions (id, subtask_id, completed_date, created_at)
+overriding system value
+select id, subtask_id, completed_date, created_at
+from subtask_completions_unpartitioned;
+
+select setval(pg_get_serial_sequence('task_completions', 'id'),
+              coalesce((select max(id) from task_completions), 0) + 1, false);
+select setval(pg_get_serial_sequence('subtask_completions', 'id'),
+              coalesce((select max(id) from subtask_completions), 0) + 1, false);
+
+drop table task_completions_unpartitioned;
+drop table subtask_completions_unpartitioned;
@@ -0,0 +1,57 @@
+-- Change log behind GET /api/sync. It holds one row per synced key (task,
+-- subtask, task completion, subtask completion) with its latest state, so a
+-- client receives each key once however often it changed since its cursor.
+-- Deletes stay behind as tombstones (deleted = true); a deleted task or
+-- subtask drops the rows of its completions, its tombstone covers them.
+
+-- Per-user version counter. Writers upsert it in the same statement as their
+-- changes and hold its row lock until commit, so a user's versions become
+-- visible in increasing order and a cursor never passes a late commit.
+create table sync_versions (
+    user_id uuid   not null,
+    version bigint not null,
+    constraint sync_versions_pkey primary key (user_id),
+    constraint sync_versions_user_id_fkey foreign key (user_id) references users (id)
+);
+
+create table sync_changes (
+    id             bigint generated by default as identity,
+    user_id        uuid        not null,
+    version        bigint      not null,
+    kind           varchar(20) not null,
+    entity_id      integer     not null,
+    completed_date date,
+    deleted        boolean     not null,
+    constraint sync_changes_pkey primary key (id),
+    constraint sync_changes_user_id_fkey foreign key (user_id) references users (id)
+);
+
+-- Upsert targets: tasks and subtasks by id, completions by (id, date)
+create unique index sync_changes_entity_key
+    on sync_changes (kind, entity_id) where completed_date is null;
+create unique index sync_changes_completion_key
+    on sync_changes (kind, entity_id, completed_date) where completed_date is not null;
+
+-- Cursor pages: (version, id) > cursor, in that order
+create index sync_changes_user_id_version_id_idx on sync_changes (user_id, version, id);
+
+-- Existing data is everyone's state as of version 0
+insert into sync_changes (user_id, version, kind, entity_id, deleted)
+select user_id, 0, 'TASK', id, false
+from tasks;
+
+insert into sync_changes (user_id, version, kind, entity_id, deleted)
+select t.user_id, 0, 'SUBTASK', s.id, false
+from subtasks s
+join tasks t on t.id = s.task_id;
+
+insert into sync_changes (user_id, version, kind, entity_id, completed_date, deleted)
+select t.user_id, 0, 'TASK_COMPLETION', tc.task_id, tc.completed_date, false
+from task_completions tc
+join tasks t on t.id = tc.task_id;
+
+insert into sync_changes (user_id, version, kind, entity_id, completed_date, deleted)
+select t.user_id, 0, 'SUBTASK_COMPLETION', sc.subtask_id, sc.completed_date, false
+from subtask_completions sc
+join subtasks s on s.id = sc.subtask_id
+join tasks t on t.id = s.task_id;
@@ -0,0 +1,9 @@
+-- Tombstones (deleted = true) expire after a retention period, so the log
+-- stops growing with every delete and undo. Live rows stay: they are the
+-- state a full sync returns. Clients that last caught up before the
+-- retention period are told to sync in full instead (see SyncService).
+
+-- When the row last changed: the writing transaction's start time
+alter table sync_changes add column changed_at timestamp(6) with time zone not null default now();
+
+create index sync_changes_expiry_idx on sync_changes (changed_at) where deleted;
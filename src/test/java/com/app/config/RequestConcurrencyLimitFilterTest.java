@@ -0,0 +1,100 @@
+package com.app.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestConcurrencyLimitFilterTest {
+
+    private final RequestConcurrencyLimitFilter filter =
+            new RequestConcurrencyLimitFilter(1, Duration.ofMillis(50));
+
+    private final CountDownLatch running = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseHeldRequest() {
+        release.countDown();
+    }
+
+    @Test
+    void rejectsWithRetryAfterOnceTheQueueTimeoutPasses() throws Exception {
+        CompletableFuture<MockHttpServletResponse> held = holdThePermit();
+
+        MockHttpServletResponse rejected = request("/api/tasks", new MockFilterChain());
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+
+        release.countDown();
+        assertThat(held.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(request("/api/tasks", new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void admitsAWaitingRequestWhenAPermitFreesUpInTime() throws Exception {
+        RequestConcurrencyLimitFilter patient = new RequestConcurrencyLimitFilter(1, Duration.ofSeconds(5));
+        CompletableFuture<MockHttpServletResponse> held =
+                CompletableFuture.supplyAsync(() -> request(patient, "/api/tasks", blockingChain()));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<MockHttpServletResponse> waiting =
+                CompletableFuture.supplyAsync(() -> request(patient, "/api/tasks", new MockFilterChain()));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertThat(held.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(waiting.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void actuatorRequestsAreNotLimited() throws Exception {
+        holdThePermit();
+
+        MockHttpServletResponse health = request("/actuator/health", new MockFilterChain());
+
+        assertThat(health.getStatus()).isEqualTo(200);
+    }
+
+    private CompletableFuture<MockHttpServletResponse> holdThePermit() throws InterruptedException {
+        CompletableFuture<MockHttpServletResponse> held =
+                CompletableFuture.supplyAsync(() -> request("/api/tasks", blockingChain()));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        return held;
+    }
+
+    private FilterChain blockingChain() {
+        return (request, response) -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private MockHttpServletResponse request(String uri, FilterChain chain) {
+        return request(filter, uri, chain);
+    }
+
+    private static MockHttpServletResponse request(RequestConcurrencyLimitFilter filter, String uri, FilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", uri), response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
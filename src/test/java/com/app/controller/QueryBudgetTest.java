@@ -0,0 +1,207 @@
+package com.app.controller;
+
+import com.app.config.JwtUtil;
+import com.app.service.CompletionRollupService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls each task, subtask and graph endpoint once, on cold caches, with the
+ * statement budgets from {@code trackify.sql.budgets} enforced: a handler that
+ * issues more statements than its budget fails its request.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "GOOGLE_CLIENT_ID=query-budget-test",
+                "GOOGLE_CLIENT_SECRET=query-budget-test-secret-query-budget-test",
+                "BACKEND_URL=http://localhost",
+                "FRONTEND_URL=http://localhost",
+                "EMAIL_ID=query-budget-test@example.com",
+                "EMAIL_PASSWORD=query-budget-test",
+                "ACTUATOR_PASSWORD=query-budget-test",
+                "trackify.sql.enforce-budgets=true",
+                "trackify.sql.count-rows=true"
+        }
+)
+class QueryBudgetTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    private static final String EMAIL = "budget@example.com";
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final LocalDate today = LocalDate.now();
+
+    @LocalServerPort private int port;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private CompletionRollupService rollupService;
+    @Autowired private MeterRegistry registry;
+    @Autowired private Environment environment;
+
+    private String token;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("DB_URL", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("DB_USERNAME", () -> "postgres");
+        registry.add("DB_PASSWORD", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void endpointsStayWithinStatementBudgets() throws Exception {
+        seed();
+        int task = jdbcTemplate.queryForObject(
+                "select min(id) from tasks where has_subtasks", Integer.class);
+        int subtask = jdbcTemplate.queryForObject(
+                "select min(id) from subtasks where task_id = ?", Integer.class, task);
+
+        // ===== TASKS =====
+        call("GET", "/api/tasks", null);
+        call("GET", "/api/tasks/" + task + "/streak", null);
+        call("GET", "/api/tasks/" + task + "/stats", null);
+        call("GET", "/api/tasks/" + task + "/full-stats", null);
+        call("GET", "/api/tasks/completed-dates", null);
+        call("GET", "/api/tasks/completed-dates?taskId=" + task + "&month=" + YearMonth.from(today), null);
+        call("GET", "/api/tasks/completedOveralldates?taskId=" + task, null);
+        call("GET", "/api/tasks/completed-dates?format=bitset", null);
+        call("GET", "/api/tasks/completedOveralldates?taskId=" + task + "&format=bitset", null);
+        call("GET", "/api/tasks/getInsights", null);
+        call("GET", "/api/tasks/export/tasks", null);
+        call("GET", "/api/tasks/export/task-completions", null);
+        call("POST", "/api/tasks/" + task + "/toggle?date=" + today.minusDays(1), null);
+        call("POST", "/api/tasks/" + task + "/complete", null);
+        call("POST", "/api/tasks/completions/batch",
+                "[{\"taskId\":" + task + ",\"date\":\"" + today.minusDays(2) + "\",\"completed\":true},"
+                        + "{\"taskId\":" + task + ",\"date\":\"" + today.minusDays(3) + "\",\"completed\":false}]");
+
+        int created = Integer.parseInt(call("POST", "/api/tasks/createTask",
+                "{\"title\":\"Budget\",\"hasSubtasks\":true}").replaceAll("^\\{\"id\":(\\d+).*", "$1"));
+        call("PUT", "/api/tasks/" + created + "/edit", "{\"title\":\"Edited\",\"hasSubtasks\":true}");
+
+        // ===== SUBTASKS =====
+        call("GET", "/api/subtasks/list/" + task, null);
+        call("GET", "/api/subtasks/" + task + "/subtasks/status?date=" + today, null);
+        call("POST", "/api/subtasks/create", "{\"taskId\":" + task + ",\"title\":\"Budget\"}");
+        call("PUT", "/api/subtasks/" + subtask + "/edit", "{\"title\":\"Edited\"}");
+        call("POST", "/api/subtasks/" + subtask + "/toggle?date=" + today, null);
+        call("POST", "/api/subtasks/completions/batch",
+                "[{\"subtaskId\":" + subtask + ",\"date\":\"" + today.minusDays(1) + "\",\"completed\":true}]");
+        call("DELETE", "/api/subtasks/" + subtask, null);
+        call("DELETE", "/api/tasks/" + created, null);
+
+        // ===== GRAPHS =====
+        call("GET", "/api/graph/monthly", null);
+        call("GET", "/api/graph/monthly?taskId=" + task, null);
+        call("GET", "/api/graph/task-summary?period=MONTHLY", null);
+        call("GET", "/api/graph/task-summary?period=ALL_TIME", null);
+        call("GET", "/api/graph/monthly-task-details", null);
+        call("GET", "/api/graph/task/planned-actual?taskId=" + task, null);
+
+        // ===== SYNC =====
+        call("GET", "/api/sync", null);
+
+        // Every handler that ran has a budget, and stayed within it
+        Map<String, Integer> budgets = Binder.get(environment)
+                .bind("trackify.sql.budgets", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+        for (DistributionSummary statements : registry.find("sql.request.statements").summaries()) {
+            String handler = statements.getId().getTag("controller") + "." + statements.getId().getTag("method");
+            assertThat(budgets).as("statement budgets").containsKey(handler);
+            assertThat(statements.max()).as(handler + " statements").isLessThanOrEqualTo(budgets.get(handler));
+
+            // Timed in nanoseconds, so statements faster than a millisecond still add up
+            if (statements.totalAmount() > 0) {
+                Timer time = registry.get("sql.request.time").tags(statements.getId().getTags()).timer();
+                assertThat(time.totalTime(TimeUnit.NANOSECONDS)).as(handler + " statement time").isPositive();
+            }
+        }
+    }
+
+    private String call(String method, String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .method(method, json == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).as(method + " " + path).isBetween(200, 299);
+        return response.body();
+    }
+
+    private void seed() {
+        jdbcTemplate.update("insert into users (id, email, created_at) values (gen_random_uuid(), ?, now())", EMAIL);
+        jdbcTemplate.update("""
+                insert into tasks (user_id, title, created_at, is_active, has_subtasks)
+                select u.id, 'Task ' || n, now() - interval '2 years', true, n = 1
+                from users u, generate_series(1, 3) n
+                """);
+        jdbcTemplate.update("""
+                insert into task_completions (task_id, completed_date, created_at)
+                select t.id, d::date, now()
+                from tasks t, generate_series(current_date - 730, current_date, interval '1 day') d
+                where abs(hashtext(t.id || ':' || d::date)) % 10 < 7
+                """);
+        jdbcTemplate.update("""
+                insert into subtasks (task_id, title, created_at, is_active)
+                select t.id, 'Subtask ' || n, now(), true
+                from tasks t, generate_series(1, 2) n
+                where t.has_subtasks
+                """);
+        rollupService.backfillIfEmpty();
+        token = jwtUtil.generateAccessToken(EMAIL);
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    @TestConfiguration
+    static class MeterRegistryConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.app.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskControllerTest {
+
+    @Test
+    void acceptsGzipWhenListed() {
+        assertThat(TaskController.acceptsGzip("gzip")).isTrue();
+        assertThat(TaskController.acceptsGzip("deflate, gzip;q=0.5, br")).isTrue();
+        assertThat(TaskController.acceptsGzip("GZip")).isTrue();
+        assertThat(TaskController.acceptsGzip("x-gzip")).isTrue();
+        assertThat(TaskController.acceptsGzip("gzip; q=1.0")).isTrue();
+    }
+
+    @Test
+    void refusesGzipWithZeroQuality() {
+        assertThat(TaskController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(TaskController.acceptsGzip("gzip; Q=0.000")).isFalse();
+        assertThat(TaskController.acceptsGzip("br, gzip;q=0, *")).isFalse();
+        assertThat(TaskController.acceptsGzip("gzip;q=0.001")).isTrue();
+    }
+
+    @Test
+    void wildcardCoversGzipUnlessRefused() {
+        assertThat(TaskController.acceptsGzip("*")).isTrue();
+        assertThat(TaskController.acceptsGzip("br, *;q=0.1")).isTrue();
+        assertThat(TaskController.acceptsGzip("*;q=0")).isFalse();
+        assertThat(TaskController.acceptsGzip("*;q=0, gzip")).isTrue();
+    }
+
+    @Test
+    void refusesGzipWhenAbsent() {
+        assertThat(TaskController.acceptsGzip(null)).isFalse();
+        assertThat(TaskController.acceptsGzip("")).isFalse();
+        assertThat(TaskController.acceptsGzip("identity")).isFalse();
+        assertThat(TaskController.acceptsGzip("deflate, br")).isFalse();
+        assertThat(TaskController.acceptsGzip("gzipped")).isFalse();
+    }
+}
@@ -0,0 +1,94 @@
+package com.app.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletedDaysBitsetTest {
+
+    @Test
+    void firstDayIsTheLowestBitOfTheFirstByte() {
+        LocalDate start = LocalDate.of(2026, 3, 10);
+
+        CompletedDaysBitset bitset = CompletedDaysBitset.of(List.of(start, start.plusDays(2), start.plusDays(8)));
+
+        assertThat(bitset.getStart()).isEqualTo(start);
+        assertThat(bitset.getDays()).isEqualTo(9);
+        assertThat(Base64.getDecoder().decode(bitset.getBits())).containsExactly(0b0000_0101, 0b0000_0001);
+    }
+
+    @Test
+    void spansAMonthBoundary() {
+        List<LocalDate> dates = List.of(LocalDate.of(2026, 1, 31), LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 8));
+
+        CompletedDaysBitset bitset = CompletedDaysBitset.of(dates);
+
+        assertThat(bitset.getStart()).isEqualTo(LocalDate.of(2026, 1, 31));
+        assertThat(bitset.getDays()).isEqualTo(9);
+        assertThat(decode(bitset)).isEqualTo(dates);
+    }
+
+    @Test
+    void countsTheLeapDayAtTheEndOfFebruary() {
+        List<LocalDate> dates = List.of(LocalDate.of(2024, 2, 28), LocalDate.of(2024, 3, 1));
+
+        CompletedDaysBitset bitset = CompletedDaysBitset.of(dates);
+
+        assertThat(bitset.getDays()).isEqualTo(3);
+        assertThat(Base64.getDecoder().decode(bitset.getBits())).containsExactly(0b0000_0101);
+    }
+
+    @Test
+    void spansAYearBoundary() {
+        List<LocalDate> dates = List.of(
+                LocalDate.of(2025, 12, 24),
+                LocalDate.of(2025, 12, 31),
+                LocalDate.of(2026, 1, 1),
+                LocalDate.of(2026, 1, 9));
+
+        CompletedDaysBitset bitset = CompletedDaysBitset.of(dates);
+
+        assertThat(bitset.getStart()).isEqualTo(LocalDate.of(2025, 12, 24));
+        assertThat(bitset.getDays()).isEqualTo(17);
+        // Offsets 0, 7, 8 and 16: one bit at each end of the first byte, then one per byte
+        assertThat(Base64.getDecoder().decode(bitset.getBits())).containsExactly(0b1000_0001, 0b0000_0001, 0b0000_0001);
+        assertThat(decode(bitset)).isEqualTo(dates);
+    }
+
+    @Test
+    void encodesASliceOfEpochDays() {
+        int[] epochDays = {1, 2, 100, 101, 103, 500};
+
+        CompletedDaysBitset bitset = CompletedDaysBitset.of(epochDays, 2, 5);
+
+        assertThat(bitset.getStart()).isEqualTo(LocalDate.ofEpochDay(100));
+        assertThat(bitset.getDays()).isEqualTo(4);
+        assertThat(Base64.getDecoder().decode(bitset.getBits())).containsExactly(0b0000_1011);
+    }
+
+    @Test
+    void noDatesHaveNoStart() {
+        CompletedDaysBitset bitset = CompletedDaysBitset.of(List.of());
+
+        assertThat(bitset.getStart()).isNull();
+        assertThat(bitset.getDays()).isZero();
+        assertThat(bitset.getBits()).isEmpty();
+    }
+
+    // What a client does with the response
+    private static List<LocalDate> decode(CompletedDaysBitset bitset) {
+        byte[] bits = Base64.getDecoder().decode(bitset.getBits());
+        List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < bitset.getDays(); i++) {
+            if ((bits[i >>> 3] & (1 << (i & 7))) != 0) {
+                dates.add(bitset.getStart().plusDays(i));
+            }
+        }
+        return dates;
+    }
+}
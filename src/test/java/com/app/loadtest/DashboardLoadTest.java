@@ -0,0 +1,275 @@
+package com.app.loadtest;
+
+import com.app.config.JwtUtil;
+import com.app.loadtest.LoadTestData.LoadUser;
+import com.app.service.CompletionRollupService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of {@code loadtest.dashboard.clients} clients loading the dashboard
+ * at once, {@code loadtest.dashboard.rounds} times each. A dashboard load is the
+ * five reads the dashboard page makes, in sequence: tasks, this month's
+ * completed dates, monthly graph, insights and the monthly summary.
+ * <p>
+ * Reports p50/p99 per endpoint and per dashboard load to stdout and
+ * {@code target/dashboard-load-test-report.txt}. With virtual threads on, JFR
+ * {@code jdk.VirtualThreadPinned} events are recorded during the run and the
+ * report lists where carriers were pinned. Compare the two modes with
+ * <pre>
+ * mvn -Pload-test test -Dtest=DashboardLoadTest -Dspring.threads.virtual.enabled=false
+ * mvn -Pload-test test -Dtest=DashboardLoadTest -Dspring.threads.virtual.enabled=true
+ * </pre>
+ */
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "GOOGLE_CLIENT_ID=load-test",
+                "GOOGLE_CLIENT_SECRET=load-test-secret-load-test-secret-load-test",
+                "BACKEND_URL=http://localhost",
+                "FRONTEND_URL=http://localhost",
+                "EMAIL_ID=load-test@example.com",
+                "EMAIL_PASSWORD=load-test",
+                "ACTUATOR_PASSWORD=load-test",
+                "ACCESS_TOKEN_EXP=86400000",
+                "spring.jpa.show-sql=false"
+        }
+)
+class DashboardLoadTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    private final int clients = Integer.getInteger("loadtest.dashboard.clients", 2000);
+    private final int rounds = Integer.getInteger("loadtest.dashboard.rounds", 3);
+    private final int users = Integer.getInteger("loadtest.dashboard.users", 200);
+    private final int tasksPerUser = Integer.getInteger("loadtest.tasks", 10);
+    private final int years = Integer.getInteger("loadtest.years", 3);
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String month = YearMonth.now().toString();
+
+    @LocalServerPort private int port;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private CompletionRollupService rollupService;
+    @Autowired private MeterRegistry registry;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("DB_URL", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("DB_USERNAME", () -> "postgres");
+        registry.add("DB_PASSWORD", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void concurrentDashboardLoads() throws Exception {
+        List<LoadUser> loadUsers = new LoadTestData(jdbcTemplate, rollupService, jwtUtil)
+                .seed(users, tasksPerUser, years, 1);
+        List<Endpoint> dashboard = List.of(
+                new Endpoint("GET /api/tasks", "/api/tasks",
+                        "TaskController", "getMyTasks"),
+                new Endpoint("GET /api/tasks/completed-dates", "/api/tasks/completed-dates?month=" + month,
+                        "TaskController", "getAllCompletedDates"),
+                new Endpoint("GET /api/graph/monthly", "/api/graph/monthly",
+                        "GraphController", "getMonthlyStats"),
+                new Endpoint("GET /api/tasks/getInsights", "/api/tasks/getInsights",
+                        "TaskController", "getInsights"),
+                new Endpoint("GET /api/graph/task-summary", "/api/graph/task-summary?period=MONTHLY",
+                        "GraphController", "getTaskSummary"));
+
+        // Warm up every user's caches and the JIT with one sequential pass
+        for (LoadUser user : loadUsers) {
+            for (Endpoint endpoint : dashboard) send(user, endpoint.path());
+        }
+
+        int loads = clients * rounds;
+        long[] dashboardLatencies = new long[loads];
+        long[][] endpointLatencies = new long[dashboard.size()][loads];
+        AtomicInteger[] errors = new AtomicInteger[dashboard.size()];
+        for (int e = 0; e < errors.length; e++) errors[e] = new AtomicInteger();
+        AtomicInteger failedLoads = new AtomicInteger();
+        Map<String, Long> statementsBefore = statementTotals();
+
+        Map<String, LongAdder> pinnedAt = new ConcurrentHashMap<>();
+        RecordingStream pinning = virtualThreads ? recordPinning(pinnedAt) : null;
+
+        CountDownLatch start = new CountDownLatch(1);
+        long began;
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                LoadUser user = loadUsers.get(c % loadUsers.size());
+                clientThreads.execute(() -> {
+                    awaitQuietly(start);
+                    for (int r = 0; r < rounds; r++) {
+                        int load = r * clients + client;
+                        boolean failed = false;
+                        long loadStart = System.nanoTime();
+                        for (int e = 0; e < dashboard.size(); e++) {
+                            long sent = System.nanoTime();
+                            if (!send(user, dashboard.get(e).path())) {
+                                errors[e].incrementAndGet();
+                                failed = true;
+                            }
+                            endpointLatencies[e][load] = System.nanoTime() - sent;
+                        }
+                        dashboardLatencies[load] = System.nanoTime() - loadStart;
+                        if (failed) failedLoads.incrementAndGet();
+                    }
+                });
+            }
+            began = System.nanoTime();
+            start.countDown();
+        } finally {
+            // stop() flushes the events still buffered before the stream closes
+            if (pinning != null) {
+                pinning.stop();
+                pinning.close();
+            }
+        }
+        long elapsed = System.nanoTime() - began;
+
+        Map<String, Long> statementsAfter = statementTotals();
+        LoadReport report = new LoadReport();
+        long dashboardStatements = 0;
+        for (int e = 0; e < dashboard.size(); e++) {
+            Endpoint endpoint = dashboard.get(e);
+            long statements = statementsAfter.getOrDefault(endpoint.handler(), 0L)
+                    - statementsBefore.getOrDefault(endpoint.handler(), 0L);
+            dashboardStatements += statements;
+            report.add(endpoint.name(), endpointLatencies[e], errors[e].get(), elapsed, statements);
+        }
+        report.add("dashboard load", dashboardLatencies, failedLoads.get(), elapsed, dashboardStatements);
+
+        StringBuilder out = new StringBuilder()
+                .append(virtualThreads ? "virtual" : "platform").append(" request threads, ")
+                .append(clients).append(" concurrent clients x ").append(rounds).append(" dashboard loads, ")
+                .append(users).append(" users\n\n")
+                .append(report.format());
+        if (pinning != null) {
+            out.append("\npinned virtual threads by first non-JDK frame\n");
+            if (pinnedAt.isEmpty()) out.append("  (none)\n");
+            pinnedAt.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                    .limit(10)
+                    .forEach(entry -> out.append(String.format("%8d  %s%n", entry.getValue().sum(), entry.getKey())));
+        }
+        System.out.println(out);
+        Files.writeString(Path.of("target", "dashboard-load-test-report.txt"), out);
+
+        assertThat(report.failedEndpoints()).as("endpoints with failed requests").isEmpty();
+    }
+
+    private boolean send(LoadUser user, String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + user.token())
+                .GET()
+                .build();
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.ofString()).statusCode() / 100 == 2;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Statements issued so far, per Controller.method
+    private Map<String, Long> statementTotals() {
+        Map<String, Long> totals = new HashMap<>();
+        for (DistributionSummary statements : registry.find("sql.request.statements").summaries()) {
+            totals.put(statements.getId().getTag("controller") + "." + statements.getId().getTag("method"),
+                    (long) statements.totalAmount());
+        }
+        return totals;
+    }
+
+    private static RecordingStream recordPinning(Map<String, LongAdder> pinnedAt) {
+        RecordingStream stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withStackTrace().withThreshold(Duration.ZERO);
+        stream.onEvent("jdk.VirtualThreadPinned", event -> {
+            String frame = event.getStackTrace() == null ? "(no stack trace)" : event.getStackTrace().getFrames()
+                    .stream()
+                    .filter(f -> !isJdk(f))
+                    .findFirst()
+                    .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName()
+                            + ":" + f.getLineNumber())
+                    .orElse("(JDK only)");
+            pinnedAt.computeIfAbsent(frame, k -> new LongAdder()).increment();
+        });
+        stream.startAsync();
+        return stream;
+    }
+
+    private static boolean isJdk(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    private record Endpoint(String name, String path, String controller, String method) {
+
+        String handler() {
+            return controller + "." + method;
+        }
+    }
+}
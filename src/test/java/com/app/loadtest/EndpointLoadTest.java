@@ -0,0 +1,389 @@
+package com.app.loadtest;
+
+import com.app.config.JwtUtil;
+import com.app.loadtest.LoadTestData.LoadUser;
+import com.app.service.CompletionRollupService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of every task, subtask and graph endpoint.
+ * <p>
+ * Seeds {@code loadtest.users} users with {@code loadtest.tasks} tasks and
+ * {@code loadtest.years} years of completions in an embedded PostgreSQL, then
+ * drives each endpoint with {@code loadtest.requests} requests from
+ * {@code loadtest.concurrency} concurrent clients, authenticated with
+ * {@link JwtUtil} tokens. Reports p50/p99 latency, throughput and SQL statements
+ * per request to stdout and {@code target/load-test-report.txt}.
+ * <p>
+ * Excluded from the default build; run with {@code mvn -Pload-test test},
+ * overriding sizes with e.g. {@code -Dloadtest.users=100 -Dloadtest.years=10}.
+ */
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "GOOGLE_CLIENT_ID=load-test",
+                "GOOGLE_CLIENT_SECRET=load-test-secret-load-test-secret-load-test",
+                "BACKEND_URL=http://localhost",
+                "FRONTEND_URL=http://localhost",
+                "EMAIL_ID=load-test@example.com",
+                "EMAIL_PASSWORD=load-test",
+                "ACTUATOR_PASSWORD=load-test",
+                "ACCESS_TOKEN_EXP=86400000",
+                "spring.jpa.show-sql=false"
+        }
+)
+class EndpointLoadTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    // Statements prepared by the application since the current phase started
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final int users = Integer.getInteger("loadtest.users", 20);
+    private final int tasksPerUser = Integer.getInteger("loadtest.tasks", 10);
+    private final int years = Integer.getInteger("loadtest.years", 3);
+    private final int requests = Integer.getInteger("loadtest.requests", 200);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+    private final int warmup = Integer.getInteger("loadtest.warmup", 50);
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final LoadReport report = new LoadReport();
+    private final LocalDate today = LocalDate.now();
+
+    @LocalServerPort private int port;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private CompletionRollupService rollupService;
+
+    private List<LoadUser> loadUsers;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("DB_URL", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("DB_USERNAME", () -> "postgres");
+        registry.add("DB_PASSWORD", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void endpointsUnderLoad() throws IOException {
+        seed();
+
+        // ===== READS =====
+        phase("GET /api/tasks", i -> get(user(i), "/api/tasks"));
+        phase("GET /api/tasks/{id}/streak", i -> get(user(i), "/api/tasks/" + task(i) + "/streak"));
+        phase("GET /api/tasks/{id}/stats", i -> get(user(i), "/api/tasks/" + task(i) + "/stats"));
+        phase("GET /api/tasks/{id}/full-stats", i -> get(user(i), "/api/tasks/" + task(i) + "/full-stats"));
+        phase("GET /api/tasks/completed-dates", i -> get(user(i), "/api/tasks/completed-dates"));
+        phase("GET /api/tasks/completed-dates?month", i -> get(user(i),
+                "/api/tasks/completed-dates?taskId=" + task(i) + "&month=" + YearMonth.from(today)));
+        phase("GET /api/tasks/completedOveralldates", i -> get(user(i),
+                "/api/tasks/completedOveralldates?taskId=" + task(i)));
+        phase("GET /api/tasks/getInsights", i -> get(user(i), "/api/tasks/getInsights"));
+        phase("GET /api/tasks/export/tasks", i -> get(user(i), "/api/tasks/export/tasks"));
+        phase("GET /api/tasks/export/task-completions", i -> get(user(i), "/api/tasks/export/task-completions"));
+
+        phase("GET /api/graph/monthly", i -> get(user(i), "/api/graph/monthly"));
+        phase("GET /api/graph/monthly?taskId", i -> get(user(i), "/api/graph/monthly?taskId=" + task(i)));
+        phase("GET /api/graph/task-summary", i -> get(user(i),
+                "/api/graph/task-summary?period=" + List.of("MONTHLY", "YEARLY", "ALL_TIME").get(i % 3)));
+        phase("GET /api/graph/monthly-task-details", i -> get(user(i), "/api/graph/monthly-task-details"));
+        phase("GET /api/graph/task/planned-actual", i -> get(user(i),
+                "/api/graph/task/planned-actual?taskId=" + task(i)));
+
+        phase("GET /api/subtasks/list/{taskId}", i -> get(user(i), "/api/subtasks/list/" + subtaskTask(i)));
+        phase("GET /api/subtasks/{taskId}/subtasks/status", i -> get(user(i),
+                "/api/subtasks/" + subtaskTask(i) + "/subtasks/status?date=" + today));
+
+        // ===== TASK WRITES =====
+        phase("POST /api/tasks/{id}/toggle", i -> post(user(i),
+                "/api/tasks/" + task(i) + "/toggle?date=" + recentDay(), null));
+        phase("POST /api/tasks/{id}/complete", i -> post(user(i), "/api/tasks/" + task(i) + "/complete", null));
+        phase("POST /api/tasks/completions/batch", i -> post(user(i), "/api/tasks/completions/batch",
+                weekOfOperations("taskId", task(i))));
+
+        List<Created> tasks = Collections.synchronizedList(new ArrayList<>());
+        phase("POST /api/tasks/createTask", i -> post(user(i), "/api/tasks/createTask",
+                "{\"title\":\"Load task " + i + "\",\"hasSubtasks\":false}"), tasks::add);
+        phase("PUT /api/tasks/{id}/edit", tasks.size(), i -> put(tasks.get(i).user(),
+                "/api/tasks/" + tasks.get(i).id() + "/edit", "{\"title\":\"Edited " + i + "\",\"hasSubtasks\":false}"));
+        phase("DELETE /api/tasks/{id}", tasks.size(), i -> delete(tasks.get(i).user(),
+                "/api/tasks/" + tasks.get(i).id()));
+
+        // ===== SUBTASK WRITES =====
+        List<Created> subtasks = Collections.synchronizedList(new ArrayList<>());
+        phase("POST /api/subtasks/create", i -> post(user(i), "/api/subtasks/create",
+                "{\"taskId\":" + scratchTask(i) + ",\"title\":\"Load subtask " + i + "\"}"), subtasks::add);
+        phase("PUT /api/subtasks/{id}/edit", subtasks.size(), i -> put(subtasks.get(i).user(),
+                "/api/subtasks/" + subtasks.get(i).id() + "/edit", "{\"title\":\"Edited " + i + "\"}"));
+        phase("POST /api/subtasks/{id}/toggle", subtasks.size(), i -> post(subtasks.get(i).user(),
+                "/api/subtasks/" + subtasks.get(i).id() + "/toggle?date=" + recentDay(), null));
+        phase("POST /api/subtasks/completions/batch", subtasks.size(), i -> post(subtasks.get(i).user(),
+                "/api/subtasks/completions/batch", weekOfOperations("subtaskId", subtasks.get(i).id())));
+        phase("DELETE /api/subtasks/{id}", subtasks.size(), i -> delete(subtasks.get(i).user(),
+                "/api/subtasks/" + subtasks.get(i).id()));
+
+        // ===== IMPORTS =====
+        phase("POST /api/tasks/import/tasks", i -> multipart(user(i), "/api/tasks/import/tasks",
+                "title,isActive,hasSubtasks\nImported " + i + ",false,false\n"));
+        phase("POST /api/tasks/import/task-completions", i -> multipart(user(i),
+                "/api/tasks/import/task-completions?" + task(i) + "=" + task(i),
+                "taskId,completedDate\n" + task(i) + "," + recentDay() + "\n"));
+
+        String formatted = report.format();
+        System.out.println(formatted);
+        Files.writeString(Path.of("target", "load-test-report.txt"), formatted);
+
+        assertThat(report.failedEndpoints()).as("endpoints with failed requests").isEmpty();
+    }
+
+    // ===== SEEDING =====
+
+    private void seed() {
+        loadUsers = new LoadTestData(jdbcTemplate, rollupService, jwtUtil)
+                .seed(users, tasksPerUser, years, requests / users / 4 + 1);
+    }
+
+    // ===== REQUEST TARGETS (request i goes to user i mod users) =====
+
+    private LoadUser user(int i) {
+        return loadUsers.get(i % users);
+    }
+
+    private int task(int i) {
+        int[] ids = user(i).taskIds();
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private int subtaskTask(int i) {
+        int[] ids = user(i).subtaskTaskIds();
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    // Each scratch task receives at most four subtasks
+    private int scratchTask(int i) {
+        return user(i).scratchTaskIds()[i / users / 4];
+    }
+
+    private LocalDate recentDay() {
+        return today.minusDays(ThreadLocalRandom.current().nextInt(60));
+    }
+
+    private String weekOfOperations(String idField, int id) {
+        StringBuilder body = new StringBuilder("[");
+        for (int d = 0; d < 7; d++) {
+            if (d > 0) body.append(',');
+            body.append("{\"").append(idField).append("\":").append(id)
+                    .append(",\"date\":\"").append(today.minusDays(d))
+                    .append("\",\"completed\":").append(ThreadLocalRandom.current().nextBoolean()).append('}');
+        }
+        return body.append(']').toString();
+    }
+
+    // ===== REQUESTS =====
+
+    private HttpRequest get(LoadUser user, String path) {
+        return request(user, path).GET().build();
+    }
+
+    private HttpRequest post(LoadUser user, String path, String json) {
+        return request(user, path)
+                .header("Content-Type", "application/json")
+                .POST(json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest put(LoadUser user, String path, String json) {
+        return request(user, path)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest delete(LoadUser user, String path) {
+        return request(user, path).DELETE().build();
+    }
+
+    private HttpRequest multipart(LoadUser user, String path, String csv) {
+        String boundary = "load-test-boundary";
+        String body = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"load.csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n"
+                + csv + "\r\n"
+                + "--" + boundary + "--\r\n";
+        return request(user, path)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(LoadUser user, String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + user.token());
+    }
+
+    // ===== PHASES =====
+
+    private void phase(String endpoint, IntFunction<HttpRequest> requestFor) {
+        phase(endpoint, requests, requestFor, null);
+    }
+
+    private void phase(String endpoint, int count, IntFunction<HttpRequest> requestFor) {
+        phase(endpoint, count, requestFor, null);
+    }
+
+    private void phase(String endpoint, IntFunction<HttpRequest> requestFor, Consumer<Created> sink) {
+        phase(endpoint, requests, requestFor, sink);
+    }
+
+    /**
+     * Sends {@code count} requests from {@code concurrency} clients. Reads are
+     * warmed up first; when {@code sink} is given, the id in each response body
+     * is passed to it along with the requesting user.
+     */
+    private void phase(String endpoint, int count, IntFunction<HttpRequest> requestFor, Consumer<Created> sink) {
+        if (sink == null && endpoint.startsWith("GET ")) {
+            drive(Math.min(warmup, count), requestFor, new long[count], new AtomicInteger(), null);
+        }
+
+        long[] latencies = new long[count];
+        AtomicInteger errors = new AtomicInteger();
+
+        STATEMENTS.set(0);
+        long start = System.nanoTime();
+        drive(count, requestFor, latencies, errors, sink);
+        long elapsed = System.nanoTime() - start;
+
+        report.add(endpoint, latencies, errors.get(), elapsed, STATEMENTS.get());
+    }
+
+    private void drive(int count, IntFunction<HttpRequest> requestFor, long[] latencies,
+                       AtomicInteger errors, Consumer<Created> sink) {
+        AtomicInteger next = new AtomicInteger();
+
+        try (ExecutorService clients = Executors.newFixedThreadPool(concurrency)) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.execute(() -> {
+                    for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                        HttpRequest request = requestFor.apply(i);
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                            latencies[i] = System.nanoTime() - sent;
+
+                            if (response.statusCode() / 100 != 2) {
+                                errors.incrementAndGet();
+                            } else if (sink != null) {
+                                Matcher id = ID.matcher(response.body());
+                                if (id.find()) sink.accept(new Created(user(i), Integer.parseInt(id.group(1))));
+                            }
+                        } catch (IOException | InterruptedException e) {
+                            latencies[i] = System.nanoTime() - sent;
+                            errors.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    private record Created(LoadUser user, int id) {
+    }
+
+    @TestConfiguration
+    static class StatementCountConfig {
+
+        // Counts every statement the application prepares
+        @Bean
+        static BeanPostProcessor statementCounter() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) return bean;
+
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                            (proxy, method, args) -> {
+                                Object result = invoke(dataSource, method, args);
+                                return result instanceof Connection connection ? counting(connection) : result;
+                            });
+                }
+            };
+        }
+
+        private static Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(StatementCountConfig.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "prepareStatement", "prepareCall", "createStatement" -> STATEMENTS.incrementAndGet();
+                            default -> {
+                            }
+                        }
+                        return invoke(connection, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
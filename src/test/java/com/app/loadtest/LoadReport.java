@@ -0,0 +1,61 @@
+package com.app.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Latency, throughput and statement figures per endpoint, one row per load phase.
+ */
+final class LoadReport {
+
+    private final List<Row> rows = new ArrayList<>();
+
+    void add(String endpoint, long[] latenciesNanos, int errors, long elapsedNanos, long statements) {
+        long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+        rows.add(new Row(endpoint, sorted, errors, elapsedNanos, statements));
+    }
+
+    List<String> failedEndpoints() {
+        return rows.stream()
+                .filter(row -> row.errors() > 0)
+                .map(row -> row.endpoint() + " (" + row.errors() + " errors)")
+                .toList();
+    }
+
+    String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%-34s %8s %7s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "p50 ms", "p99 ms", "max ms", "req/s", "stmts/req"));
+
+        for (Row row : rows) {
+            int n = row.latencies().length;
+            out.append(String.format(Locale.ROOT, "%-34s %8d %7d %10.2f %10.2f %10.2f %10.1f %10.2f%n",
+                    row.endpoint(),
+                    n,
+                    row.errors(),
+                    millis(percentile(row.latencies(), 0.50)),
+                    millis(percentile(row.latencies(), 0.99)),
+                    millis(n == 0 ? 0 : row.latencies()[n - 1]),
+                    row.elapsedNanos() == 0 ? 0 : n * 1e9 / row.elapsedNanos(),
+                    n == 0 ? 0 : (double) row.statements() / n));
+        }
+        return out.toString();
+    }
+
+    // Nearest-rank percentile of sorted values
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private record Row(String endpoint, long[] latencies, int errors, long elapsedNanos, long statements) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.app.loadtest;
+
+import com.app.config.JwtUtil;
+import com.app.service.CompletionRollupService;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds load-test users {@code load0@example.com} ... with active tasks (every
+ * other one with three subtasks), inactive scratch tasks with room for new
+ * subtasks, and years of completions on roughly 70% of days, the same days on
+ * every run.
+ */
+final class LoadTestData {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CompletionRollupService rollupService;
+    private final JwtUtil jwtUtil;
+
+    LoadTestData(JdbcTemplate jdbcTemplate, CompletionRollupService rollupService, JwtUtil jwtUtil) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupService = rollupService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    List<LoadUser> seed(int users, int tasksPerUser, int years, int scratchPerUser) {
+        for (int u = 0; u < users; u++) {
+            jdbcTemplate.update("insert into users (id, email, created_at) values (gen_random_uuid(), ?, now())",
+                    email(u));
+        }
+        jdbcTemplate.update("""
+                insert into tasks (user_id, title, created_at, is_active, has_subtasks)
+                select u.id, 'Task ' || n, now() - make_interval(years => ?), true, n % 2 = 0
+                from users u, generate_series(1, ?) n
+                """, years, tasksPerUser);
+        // Inactive tasks with room for new subtasks (at most 5 per task)
+        jdbcTemplate.update("""
+                insert into tasks (user_id, title, created_at, is_active, has_subtasks)
+                select u.id, 'Scratch ' || n, now(), false, true
+                from users u, generate_series(1, ?) n
+                """, scratchPerUser);
+        jdbcTemplate.update("""
+                insert into task_completions (task_id, completed_date, created_at)
+                select t.id, d::date, now()
+                from tasks t, generate_series(current_date - make_interval(years => ?), current_date, interval '1 day') d
+                where t.is_active and abs(hashtext(t.id || ':' || d::date)) % 10 < 7
+                """, years);
+        jdbcTemplate.update("""
+                insert into subtasks (task_id, title, created_at, is_active)
+                select t.id, 'Subtask ' || n, now(), true
+                from tasks t, generate_series(1, 3) n
+                where t.is_active and t.has_subtasks
+                """);
+        jdbcTemplate.update("""
+                insert into subtask_completions (subtask_id, completed_date, created_at)
+                select s.id, d::date, now()
+                from subtasks s, generate_series(current_date - 365, current_date, interval '1 day') d
+                where abs(hashtext(s.id || ':' || d::date)) % 2 = 0
+                """);
+        rollupService.backfillIfEmpty();
+        jdbcTemplate.execute("analyze");
+
+        List<LoadUser> loadUsers = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            String email = email(u);
+            loadUsers.add(new LoadUser(
+                    jwtUtil.generateAccessToken(email),
+                    ids("select t.id from tasks t join users u on u.id = t.user_id"
+                            + " where u.email = ? and t.is_active order by t.id", email),
+                    ids("select t.id from tasks t join users u on u.id = t.user_id"
+                            + " where u.email = ? and t.is_active and t.has_subtasks order by t.id", email),
+                    ids("select t.id from tasks t join users u on u.id = t.user_id"
+                            + " where u.email = ? and not t.is_active order by t.id", email)));
+        }
+        return loadUsers;
+    }
+
+    private int[] ids(String sql, String email) {
+        return jdbcTemplate.queryForList(sql, Integer.class, email).stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String email(int u) {
+        return "load" + u + "@example.com";
+    }
+
+    record LoadUser(String token, int[] taskIds, int[] subtaskTaskIds, int[] scratchTaskIds) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.app.repository;
+
+import com.app.service.CompletionRollupService;
+import com.app.service.GraphResultCache;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Upgrades a database that predates the migrations: it holds the V1 schema
+ * and data but no Flyway history, as one created by {@code ddl-auto=update}
+ * does. Flyway baselines it at V1 and applies every later version, and the
+ * entities then validate against the result.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BaselineMigrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final LocalDate DAY = LocalDate.of(2025, 12, 31);
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TaskMonthRollupRepository taskMonthRollupRepository;
+    @Autowired private UserDayRollupRepository userDayRollupRepository;
+    @Autowired private TaskCompletionRepository completionRepository;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        createBaselineDatabase();
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void baselinesAtV1AndAppliesEveryLaterVersion() {
+        List<String> applied = jdbcTemplate.queryForList(
+                "select version from flyway_schema_history where success order by installed_rank", String.class);
+
+        assertThat(applied.getFirst()).isEqualTo("1");
+        assertThat(applied).contains("1.1", "2", "3", "4", "5");
+        assertThat(jdbcTemplate.queryForObject(
+                "select type from flyway_schema_history where version = '1'", String.class)).isEqualTo("BASELINE");
+    }
+
+    @Test
+    void keepsExistingData() {
+        assertThat(jdbcTemplate.queryForObject("select count(*) from task_completions", Integer.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from task_completions_y2025", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from subtask_completions", Integer.class)).isEqualTo(1);
+
+        // The sync log starts from everything that already existed
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from sync_changes where user_id = ?", Integer.class, USER_ID)).isEqualTo(5);
+    }
+
+    @Test
+    void startsTheSummaryTablesEmptyAndBackfillsTheRollups() {
+        assertThat(jdbcTemplate.queryForObject("select count(*) from task_streaks", Integer.class)).isZero();
+        assertThat(taskMonthRollupRepository.count()).isZero();
+
+        new CompletionRollupService(taskMonthRollupRepository, userDayRollupRepository,
+                completionRepository, mock(GraphResultCache.class)).backfillIfEmpty();
+
+        assertThat(taskMonthRollupRepository.count()).isEqualTo(2);
+        assertThat(userDayRollupRepository.count()).isEqualTo(2);
+    }
+
+    // The V1 schema with a little data in it, before Flyway has ever run
+    private static void createBaselineDatabase() {
+        JdbcTemplate jdbc = new JdbcTemplate(POSTGRES.getPostgresDatabase());
+        if (jdbc.queryForObject("select to_regclass('users') is not null", Boolean.class)) return;
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql"))
+                .execute(POSTGRES.getPostgresDatabase());
+
+        jdbc.update("insert into users (id, email, created_at) values (?, 'baseline@example.com', now())", USER_ID);
+        Integer taskId = jdbc.queryForObject("""
+                insert into tasks (user_id, title, created_at, is_active, has_subtasks)
+                values (?, 'Old task', now(), true, true)
+                returning id
+                """, Integer.class, USER_ID);
+        Integer subtaskId = jdbc.queryForObject("""
+                insert into subtasks (task_id, title, created_at, is_active)
+                values (?, 'Old subtask', now(), true)
+                returning id
+                """, Integer.class, taskId);
+        jdbc.update("insert into task_completions (task_id, completed_date, created_at) values (?, ?, now())",
+                taskId, DAY);
+        jdbc.update("insert into task_completions (task_id, completed_date, created_at) values (?, ?, now())",
+                taskId, DAY.plusDays(1));
+        jdbc.update("insert into subtask_completions (subtask_id, completed_date, created_at) values (?, ?, now())",
+                subtaskId, DAY);
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.app.repository;
+
+import com.app.model.Task;
+import com.app.model.User;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fails when a repository read can only be planned as a sequential scan.
+ * <p>
+ * Every SELECT a repository method prepares is captured and planned as a
+ * generic prepared statement with {@code enable_seqscan = off}, so the planner
+ * only falls back to a sequential scan when no index matches the query shape.
+ * The schema comes from the Flyway migrations.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RepositoryIndexUsageTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    // Statements prepared while a repository call is being captured
+    private static final List<String> CAPTURED = Collections.synchronizedList(new ArrayList<>());
+    private static volatile boolean capturing;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TaskRepository taskRepository;
+    @Autowired private TaskCompletionRepository completionRepository;
+    @Autowired private SubtaskRepository subtaskRepository;
+    @Autowired private SubtaskCompletionRepository subtaskCompletionRepository;
+    @Autowired private TaskMonthRollupRepository taskMonthRollupRepository;
+    @Autowired private UserDayRollupRepository userDayRollupRepository;
+    @Autowired private SyncChangeRepository syncChangeRepository;
+
+    private UUID userId;
+    private User user;
+    private Task task;
+    private final LocalDate from = LocalDate.of(2025, 1, 1);
+    private final LocalDate to = LocalDate.of(2025, 12, 31);
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @BeforeEach
+    void seed() {
+        for (int u = 0; u < 20; u++) {
+            jdbcTemplate.update("insert into users (id, email, created_at) values (gen_random_uuid(), ?, now())",
+                    "user" + u + "@example.com");
+        }
+        jdbcTemplate.update("""
+                insert into tasks (user_id, title, created_at, is_active, has_subtasks)
+                select u.id, 'Task ' || n, now(), n % 4 <> 0, true
+                from users u, generate_series(1, 5) n
+                """);
+        jdbcTemplate.update("""
+                insert into task_completions (task_id, completed_date, created_at)
+                select t.id, date '2025-01-01' + d, now()
+                from tasks t, generate_series(0, 364, 3) d
+                """);
+        jdbcTemplate.update("""
+                insert into subtasks (task_id, title, created_at, is_active)
+                select t.id, 'Subtask ' || n, now(), true
+                from tasks t, generate_series(1, 3) n
+                """);
+        jdbcTemplate.update("""
+                insert into subtask_completions (subtask_id, completed_date, created_at)
+                select s.id, date '2025-01-01' + d, now()
+                from subtasks s, generate_series(0, 364, 7) d
+                """);
+        taskMonthRollupRepository.rebuildAll();
+        jdbcTemplate.execute("analyze");
+
+        userId = jdbcTemplate.queryForObject("select id from users where email = 'user0@example.com'", UUID.class);
+        user = userRepository.getReferenceById(userId);
+        task = taskRepository.findByUser(user).getFirst();
+    }
+
+    @Test
+    void userQueriesUseIndexes() {
+        assertIndexOnly(() -> userRepository.findByEmail("user0@example.com"));
+    }
+
+    @Test
+    void taskQueriesUseIndexes() {
+        assertIndexOnly(() -> taskRepository.findByUserAndIsActiveTrueOrderByCreatedAtDesc(user));
+        assertIndexOnly(() -> taskRepository.findByUserAndIsActiveTrue(user));
+        assertIndexOnly(() -> taskRepository.findByUserAndIsActiveTrueOrderById(user));
+        assertIndexOnly(() -> taskRepository.findByUser(user));
+        assertIndexOnly(() -> taskRepository.findByIdAndUserId(task.getId(), userId));
+        assertIndexOnly(() -> taskRepository.existsByIdAndUserId(task.getId(), userId));
+        assertIndexOnly(() -> taskRepository.findIdsByUserAndIdIn(user, List.of(task.getId())));
+        assertIndexOnly(() -> {
+            try (var rows = taskRepository.streamExportRowsByUser(user)) {
+                rows.count();
+            }
+        });
+    }
+
+    @Test
+    void completionQueriesUseIndexes() {
+        assertIndexOnly(() -> completionRepository.findCompletionDaysByUserId(userId));
+        assertIndexOnly(() -> completionRepository.findCompletionDaysByUserIdAndCompletedDateBetween(userId, from, to));
+        assertIndexOnly(() -> completionRepository.findEpochDaysByTaskId(task.getId()));
+        assertIndexOnly(() -> completionRepository.countByTaskIdInAndCompletedDateBetween(List.of(task.getId()), from, to));
+        assertIndexOnly(() -> {
+            try (var rows = completionRepository.streamExportRowsByUser(user)) {
+                rows.count();
+            }
+        });
+    }
+
+    @Test
+    void subtaskQueriesUseIndexes() {
+        assertIndexOnly(() -> subtaskRepository.findByTaskAndIsActiveTrueOrderByCreatedAtDesc(task));
+        assertIndexOnly(() -> subtaskRepository.countByTask(task));
+        assertIndexOnly(() -> subtaskRepository.findByIdAndTaskUserId(1, userId));
+        assertIndexOnly(() -> subtaskRepository.existsByIdAndTaskUserId(1, userId));
+        assertIndexOnly(() -> subtaskRepository.findIdsByTaskUserIdAndIdIn(userId, List.of(1, 2)));
+        assertIndexOnly(() -> subtaskCompletionRepository.findBySubtaskTaskAndCompletedDate(task, from));
+    }
+
+    @Test
+    void rollupQueriesUseIndexes() {
+        assertIndexOnly(() -> taskMonthRollupRepository.findByTaskIdInAndMonthStartBetween(List.of(task.getId()), from, to));
+        assertIndexOnly(() -> taskMonthRollupRepository.sumByTaskIdIn(List.of(task.getId())));
+        assertIndexOnly(() -> userDayRollupRepository.sumMonthlyByUserId(userId, from, to));
+    }
+
+    @Test
+    void syncQueriesUseIndexes() {
+        assertIndexOnly(() -> syncChangeRepository.findPage(userId, 0, 0, 100));
+    }
+
+    private void assertIndexOnly(Runnable repositoryCall) {
+        List<String> statements = capture(repositoryCall);
+        assertThat(statements).as("captured statements").isNotEmpty();
+
+        for (String sql : statements) {
+            assertThat(explain(sql)).as(sql).doesNotContain("Seq Scan");
+        }
+    }
+
+    private static List<String> capture(Runnable call) {
+        CAPTURED.clear();
+        capturing = true;
+        try {
+            call.run();
+        } finally {
+            capturing = false;
+        }
+        return CAPTURED.stream()
+                .filter(sql -> sql.stripLeading().toLowerCase().startsWith("select"))
+                .toList();
+    }
+
+    // Plans the statement without parameter values, as a cached generic plan would be
+    private String explain(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') numbered.append('$').append(++parameters);
+            else numbered.append(c);
+        }
+
+        jdbcTemplate.execute("set local enable_seqscan = off");
+        jdbcTemplate.execute("set local plan_cache_mode = force_generic_plan");
+        jdbcTemplate.execute("prepare index_usage_check as " + numbered);
+        try {
+            String nulls = String.join(", ", Collections.nCopies(parameters, "null"));
+            String execute = parameters == 0 ? "index_usage_check" : "index_usage_check(" + nulls + ")";
+            return String.join("\n", jdbcTemplate.queryForList("explain execute " + execute, String.class));
+        } finally {
+            jdbcTemplate.execute("deallocate index_usage_check");
+        }
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        // Records the SQL of every statement prepared while capturing is on
+        @Bean
+        static BeanPostProcessor statementCapture() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) return bean;
+
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                            (proxy, method, args) -> {
+                                Object result = invoke(dataSource, method, args);
+                                return result instanceof Connection connection ? capturing(connection) : result;
+                            });
+                }
+            };
+        }
+
+        private static Connection capturing(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(StatementCaptureConfig.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (capturing && method.getName().equals("prepareStatement")) {
+                            CAPTURED.add((String) args[0]);
+                        }
+                        return invoke(connection, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
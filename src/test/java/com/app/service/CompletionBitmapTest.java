@@ -0,0 +1,146 @@
+package com.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bit arithmetic at word edges: epoch days are addressed in 64-day words, so
+ * days 63/64 and -1/0 sit on either side of a word boundary.
+ */
+class CompletionBitmapTest {
+
+    @Test
+    void countMasksBothEndsOfTheRange() {
+        CompletionBitmap bitmap = CompletionBitmap.ofEpochDays(IntStream.rangeClosed(0, 191).toArray());
+
+        assertThat(bitmap.count(day(0), day(191))).isEqualTo(192);
+        assertThat(bitmap.count(day(5), day(5))).isEqualTo(1);
+        assertThat(bitmap.count(day(3), day(60))).isEqualTo(58);
+        assertThat(bitmap.count(day(63), day(64))).isEqualTo(2);
+        assertThat(bitmap.count(day(60), day(130))).isEqualTo(71);
+        assertThat(bitmap.count(day(-100), day(1000))).isEqualTo(192);
+        assertThat(bitmap.count(day(200), day(300))).isZero();
+        assertThat(bitmap.count(day(10), day(9))).isZero();
+    }
+
+    @Test
+    void countSkipsUnsetBitsInsideTheRange() {
+        CompletionBitmap bitmap = CompletionBitmap.ofEpochDays(new int[]{1, 63, 64, 127, 128});
+
+        assertThat(bitmap.count(day(2), day(62))).isZero();
+        assertThat(bitmap.count(day(1), day(63))).isEqualTo(2);
+        assertThat(bitmap.count(day(63), day(127))).isEqualTo(3);
+        assertThat(bitmap.count(day(64), day(128))).isEqualTo(3);
+    }
+
+    @Test
+    void runsCrossWordBoundaries() {
+        CompletionBitmap bitmap = CompletionBitmap.ofEpochDays(IntStream.rangeClosed(60, 130).toArray());
+
+        assertThat(bitmap.runContaining(day(60))).isEqualTo(run(60, 130));
+        assertThat(bitmap.runContaining(day(64))).isEqualTo(run(60, 130));
+        assertThat(bitmap.runContaining(day(130))).isEqualTo(run(60, 130));
+        assertThat(bitmap.runContaining(day(59))).isNull();
+    }
+
+    @Test
+    void runsEndAtTheEdgesOfTheBitmap() {
+        // Fills words 0 and 1 completely: no clear bit to either side
+        CompletionBitmap bitmap = CompletionBitmap.ofEpochDays(IntStream.rangeClosed(0, 127).toArray());
+
+        assertThat(bitmap.runContaining(day(70))).isEqualTo(run(0, 127));
+        assertThat(bitmap.bestRun()).isEqualTo(run(0, 127));
+        assertThat(bitmap.without(day(64)).runContaining(day(63))).isEqualTo(run(0, 63));
+        assertThat(bitmap.without(day(63)).runContaining(day(64))).isEqualTo(run(64, 127));
+    }
+
+    @Test
+    void bestRunPrefersTheMostRecentOfEqualRuns() {
+        CompletionBitmap bitmap = CompletionBitmap.ofEpochDays(new int[]{10, 11, 12, 62, 63, 64, 100});
+
+        assertThat(bitmap.bestRun()).isEqualTo(run(62, 64));
+    }
+
+    @Test
+    void daysBeforeTheEpochAlignDown() {
+        CompletionBitmap bitmap = CompletionBitmap.ofEpochDays(new int[]{-65, -64, -1, 0});
+
+        assertThat(bitmap.count()).isEqualTo(4);
+        assertThat(bitmap.dates()).containsExactly(day(-65), day(-64), day(-1), day(0));
+        assertThat(bitmap.contains(day(-63))).isFalse();
+        assertThat(bitmap.runContaining(day(-1))).isEqualTo(run(-1, 0));
+        assertThat(bitmap.runContaining(day(-65))).isEqualTo(run(-65, -64));
+        assertThat(bitmap.count(day(-64), day(-1))).isEqualTo(2);
+        assertThat(bitmap.last()).isEqualTo(day(0));
+    }
+
+    @Test
+    void withGrowsToTheLeft() {
+        CompletionBitmap bitmap = CompletionBitmap.ofEpochDays(new int[]{130});
+
+        CompletionBitmap grown = bitmap.with(day(-1)).with(day(5));
+
+        assertThat(grown.dates()).containsExactly(day(-1), day(5), day(130));
+        assertThat(grown.count()).isEqualTo(3);
+        assertThat(grown.count(day(-1), day(129))).isEqualTo(2);
+        assertThat(bitmap.dates()).containsExactly(day(130));
+    }
+
+    @Test
+    void withGrowsToTheRight() {
+        CompletionBitmap bitmap = CompletionBitmap.ofEpochDays(new int[]{0, 1});
+
+        CompletionBitmap grown = bitmap.with(day(2)).with(day(200));
+
+        assertThat(grown.dates()).containsExactly(day(0), day(1), day(2), day(200));
+        assertThat(grown.runContaining(day(0))).isEqualTo(run(0, 2));
+        assertThat(grown.last()).isEqualTo(day(200));
+        assertThat(grown.lastOnOrBefore(day(199))).isEqualTo(day(2));
+    }
+
+    @Test
+    void withAndWithoutAreNoOpsForUnchangedDays() {
+        CompletionBitmap bitmap = CompletionBitmap.ofEpochDays(new int[]{3});
+
+        assertThat(bitmap.with(day(3))).isSameAs(bitmap);
+        assertThat(bitmap.without(day(4))).isSameAs(bitmap);
+        assertThat(CompletionBitmap.empty().with(day(-3)).dates()).containsExactly(day(-3));
+    }
+
+    @Test
+    void countsDaysOfWeek() {
+        // 1969-12-29 (a Monday) to 1970-01-04 (a Sunday), straddling word -1 and word 0
+        CompletionBitmap bitmap = CompletionBitmap.of(List.of(day(-3), day(-2), day(0), day(3)));
+
+        long[] counts = bitmap.countByDayOfWeek();
+
+        assertThat(counts).containsExactly(1, 1, 0, 1, 0, 0, 1);
+    }
+
+    @Test
+    void acceptsDatesInsideTheWriteWindow() {
+        LocalDate today = LocalDate.of(2026, 3, 1);
+
+        assertThat(CompletionBitmap.accepts(today, today)).isTrue();
+        assertThat(CompletionBitmap.accepts(today.plusDays(1), today)).isTrue();
+        assertThat(CompletionBitmap.accepts(LocalDate.of(1926, 3, 1), today)).isTrue();
+
+        assertThat(CompletionBitmap.accepts(today.plusDays(2), today)).isFalse();
+        assertThat(CompletionBitmap.accepts(LocalDate.of(1926, 2, 28), today)).isFalse();
+        assertThat(CompletionBitmap.accepts(LocalDate.of(1, 1, 1), today)).isFalse();
+        assertThat(CompletionBitmap.accepts(LocalDate.of(9999, 12, 31), today)).isFalse();
+    }
+
+    private static LocalDate day(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static CompletionBitmap.Run run(long fromEpochDay, long toEpochDay) {
+        return new CompletionBitmap.Run(day(fromEpochDay), day(toEpochDay));
+    }
+}
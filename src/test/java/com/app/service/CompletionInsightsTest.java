@@ -0,0 +1,221 @@
+package com.app.service;
+
+import com.app.repository.projection.CompletionDays;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The single-pass insights checked against the previous stream-based
+ * computation, reproduced below as {@link Legacy} on the same fixtures.
+ */
+class CompletionInsightsTest {
+
+    private static final int TODAY = 20_000;
+
+    private final List<Completion> completions = new ArrayList<>();
+    private final Map<Integer, Integer> activeCreatedDays = new HashMap<>();
+
+    @Test
+    void perfectDaysOnlyStartOnceEveryActiveTaskExists() {
+        // Task 1 exists from day 0, task 2 is created on day 10
+        activeCreatedDays.put(1, TODAY - 19);
+        activeCreatedDays.put(2, TODAY - 9);
+        completeRange(1, TODAY - 19, TODAY);
+        completeRange(2, TODAY - 9, TODAY - 5);
+        completeRange(2, TODAY - 3, TODAY);
+
+        CompletionInsights insights = compute();
+
+        assertThat(insights.perfectDays()).isEqualTo(9);
+        assertThat(insights.topTaskId()).isEqualTo(1);
+        assertThat(insights.topTaskCount()).isEqualTo(20);
+        assertThat(insights.streakTaskId()).isEqualTo(1);
+        assertThat(insights.bestStreak()).isEqualTo(20);
+        assertThat(insights.totalCompletions()).isEqualTo(29);
+        assertThat(insights.consistencyPercentage()).isEqualTo(96.67);
+        assertMatchesLegacy(insights);
+    }
+
+    @Test
+    void topTaskMayBeInactiveButTheStreakMayNot() {
+        activeCreatedDays.put(1, TODAY - 30);
+        completeRange(1, TODAY - 4, TODAY);
+        completeRange(5, TODAY - 30, TODAY - 20);
+
+        CompletionInsights insights = compute();
+
+        assertThat(insights.topTaskId()).isEqualTo(5);
+        assertThat(insights.topTaskCount()).isEqualTo(11);
+        assertThat(insights.streakTaskId()).isEqualTo(1);
+        assertThat(insights.bestStreak()).isEqualTo(5);
+        // Task 5's days no longer count as perfect (see the last test)
+        assertThat(insights.perfectDays()).isEqualTo(5);
+        assertThat(Legacy.topTaskCount(completions)).isEqualTo(11);
+        assertThat(Legacy.highestStreak(completions, activeCreatedDays.keySet())).isEqualTo(5);
+    }
+
+    @Test
+    void noActiveTasksMeansNoPerfectDaysOrConsistency() {
+        completeRange(3, TODAY - 2, TODAY);
+
+        CompletionInsights insights = compute();
+
+        assertThat(insights.perfectDays()).isZero();
+        assertThat(insights.consistencyPercentage()).isZero();
+        assertThat(insights.streakTaskId()).isEqualTo(-1);
+        assertThat(insights.topTaskId()).isEqualTo(3);
+        assertMatchesLegacy(insights);
+    }
+
+    @Test
+    void noCompletions() {
+        activeCreatedDays.put(1, TODAY);
+
+        CompletionInsights insights = compute();
+
+        assertThat(insights.totalCompletions()).isZero();
+        assertThat(insights.topTaskId()).isEqualTo(-1);
+        assertThat(insights.streakTaskId()).isEqualTo(-1);
+        assertThat(insights.perfectDays()).isZero();
+        assertMatchesLegacy(insights);
+    }
+
+    @Test
+    void matchesLegacyOnRandomHistories() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            completions.clear();
+            activeCreatedDays.clear();
+
+            int taskCount = 1 + random.nextInt(5);
+            for (int taskId = 1; taskId <= taskCount; taskId++) {
+                int created = TODAY - random.nextInt(60);
+                activeCreatedDays.put(taskId, created);
+                for (int day = created; day <= TODAY; day++) {
+                    if (random.nextInt(4) != 0) completions.add(new Completion(taskId, day));
+                }
+            }
+
+            assertMatchesLegacy(compute());
+        }
+    }
+
+    @Test
+    void deactivatedTaskNoLongerStandsInForAnActiveOne() {
+        // The one intended difference: before, any two tasks done on a day made it
+        // perfect for a user with two active tasks
+        activeCreatedDays.put(1, TODAY - 1);
+        activeCreatedDays.put(2, TODAY - 1);
+        completions.add(new Completion(1, TODAY));
+        completions.add(new Completion(2, TODAY));
+        completions.add(new Completion(1, TODAY - 1));
+        completions.add(new Completion(9, TODAY - 1));
+
+        assertThat(compute().perfectDays()).isEqualTo(1);
+        assertThat(Legacy.perfectDays(completions, activeCreatedDays.keySet())).isEqualTo(2);
+    }
+
+    private void completeRange(int taskId, int from, int to) {
+        for (int day = from; day <= to; day++) {
+            completions.add(new Completion(taskId, day));
+        }
+    }
+
+    private CompletionInsights compute() {
+        List<Completion> ordered = completions.stream()
+                .sorted(Comparator.comparingInt(Completion::taskId).thenComparingInt(Completion::day))
+                .toList();
+        int[] taskIds = ordered.stream().mapToInt(Completion::taskId).toArray();
+        int[] days = ordered.stream().mapToInt(Completion::day).toArray();
+
+        int[] activeIds = activeCreatedDays.keySet().stream().mapToInt(Integer::intValue).toArray();
+        int[] createdDays = new int[activeIds.length];
+        for (int i = 0; i < activeIds.length; i++) {
+            createdDays[i] = activeCreatedDays.get(activeIds[i]);
+        }
+
+        return CompletionInsights.compute(new CompletionDays(taskIds, days, ordered.size()),
+                activeIds, createdDays, TODAY);
+    }
+
+    // Ties for the top task or streak are settled differently, so compare the figures, not the ids
+    private void assertMatchesLegacy(CompletionInsights insights) {
+        Set<Integer> active = activeCreatedDays.keySet();
+
+        assertThat(insights.totalCompletions()).isEqualTo(completions.size());
+        assertThat(insights.topTaskCount()).isEqualTo(Legacy.topTaskCount(completions));
+        assertThat(insights.bestStreak()).isEqualTo(Legacy.highestStreak(completions, active));
+        assertThat(insights.perfectDays()).isEqualTo(Legacy.perfectDays(completions, active));
+        assertThat(insights.consistencyPercentage())
+                .isEqualTo(Legacy.consistency(completions.size(), activeCreatedDays.values()));
+    }
+
+    private record Completion(int taskId, int day) {
+    }
+
+    /**
+     * The figures as getUserInsights computed them before the single pass,
+     * over the same (taskId, day) pairs instead of entities.
+     */
+    private static final class Legacy {
+
+        static long topTaskCount(List<Completion> completions) {
+            return completions.stream()
+                    .collect(Collectors.groupingBy(Completion::taskId, Collectors.counting()))
+                    .values().stream()
+                    .max(Long::compare)
+                    .orElse(0L);
+        }
+
+        // Was read from each active task's persisted best streak
+        static int highestStreak(List<Completion> completions, Set<Integer> activeTaskIds) {
+            int highest = 0;
+            for (int taskId : activeTaskIds) {
+                Set<Integer> days = completions.stream()
+                        .filter(c -> c.taskId() == taskId)
+                        .map(Completion::day)
+                        .collect(Collectors.toSet());
+                for (int day : days) {
+                    if (days.contains(day - 1)) continue;
+                    int length = 0;
+                    while (days.contains(day + length)) length++;
+                    highest = Math.max(highest, length);
+                }
+            }
+            return highest;
+        }
+
+        static long perfectDays(List<Completion> completions, Set<Integer> activeTaskIds) {
+            if (activeTaskIds.isEmpty()) return 0;
+
+            Map<Integer, Set<Integer>> tasksPerDay = completions.stream()
+                    .collect(Collectors.groupingBy(Completion::day,
+                            Collectors.mapping(Completion::taskId, Collectors.toCollection(HashSet::new))));
+
+            return tasksPerDay.values().stream()
+                    .filter(tasks -> tasks.size() == activeTaskIds.size())
+                    .count();
+        }
+
+        static double consistency(long totalCompletions, Iterable<Integer> activeCreatedDays) {
+            long totalAvailableDays = 0;
+            for (int created : activeCreatedDays) {
+                totalAvailableDays += TODAY - created + 1;
+            }
+            return totalAvailableDays == 0
+                    ? 0
+                    : Math.round((totalCompletions * 10000.0) / totalAvailableDays) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvStreamWriterTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Test
+    void quotesTitlesWithCommasQuotesAndNewlines() throws IOException {
+        try (CsvStreamWriter writer = new CsvStreamWriter(out, false)) {
+            writer.header("id,title");
+            writer.value(1).quoted("Read, then write").endRow();
+            writer.value(2).quoted("Say \"hi\"").endRow();
+            writer.value(3).quoted("two\nlines").endRow();
+            writer.value(4).quoted("\"").endRow();
+            writer.value(5).quoted("Café ✓").endRow();
+        }
+
+        assertThat(written()).isEqualTo(
+                "id,title\n"
+                + "1,\"Read, then write\"\n"
+                + "2,\"Say \"\"hi\"\"\"\n"
+                + "3,\"two\nlines\"\n"
+                + "4,\"\"\"\"\n"
+                + "5,\"Café ✓\"\n");
+    }
+
+    @Test
+    void leavesNullColumnsEmpty() throws IOException {
+        try (CsvStreamWriter writer = new CsvStreamWriter(out, false)) {
+            writer.value((Integer) null).quoted(null).value((Boolean) null)
+                    .value((LocalDate) null).value((Instant) null).endRow();
+        }
+
+        assertThat(written()).isEqualTo(",\"\",,,\n");
+    }
+
+    @Test
+    void encodesNumbersAndDates() throws IOException {
+        try (CsvStreamWriter writer = new CsvStreamWriter(out, false)) {
+            writer.value(0).value(-42).value(Integer.MIN_VALUE).value(true).value(false).endRow();
+            writer.value(LocalDate.of(2026, 1, 5)).value(LocalDate.of(987, 12, 31))
+                    .value(Instant.parse("2026-03-01T08:15:30.250Z")).endRow();
+        }
+
+        assertThat(written()).isEqualTo("""
+                0,-42,-2147483648,true,false
+                2026-01-05,0987-12-31,2026-03-01T08:15:30.250Z
+                """);
+    }
+
+    @Test
+    void gzipOutputDecompressesToTheSameRows() throws IOException {
+        try (CsvStreamWriter writer = new CsvStreamWriter(out, true)) {
+            writer.header("id,title");
+            writer.value(7).quoted("a, \"b\"").endRow();
+        }
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo("id,title\n7,\"a, \"\"b\"\"\"\n");
+        }
+    }
+
+    private String written() {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,67 @@
+package com.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GraphResultCacheTest {
+
+    private final GraphResultCache cache = new GraphResultCache(10, 10, Duration.ofMinutes(10));
+    private final UUID user = UUID.randomUUID();
+    private final UUID otherUser = UUID.randomUUID();
+    private final AtomicInteger computations = new AtomicInteger();
+
+    @Test
+    void invalidatingATaskDropsItsEntriesAndTheAllTaskEntries() {
+        read(user, 1);
+        read(user, 2);
+        read(user, null);
+
+        cache.invalidateTask(user, 1);
+
+        assertRecomputed(() -> read(user, 1));
+        assertRecomputed(() -> read(user, null));
+        assertCached(() -> read(user, 2));
+    }
+
+    @Test
+    void invalidationOnlyTouchesItsUser() {
+        read(user, 1);
+        read(otherUser, 1);
+
+        cache.invalidateUser(user);
+
+        assertRecomputed(() -> read(user, 1));
+        assertCached(() -> read(otherUser, 1));
+    }
+
+    @Test
+    void resultComputedAcrossAnInvalidationIsNotCached() {
+        cache.get(user, "summary", 1, null, today -> {
+            cache.invalidateTask(user, 1);
+            return computations.incrementAndGet();
+        });
+
+        assertRecomputed(() -> read(user, 1));
+    }
+
+    private void read(UUID userId, Integer taskId) {
+        cache.get(userId, "summary", taskId, null, today -> computations.incrementAndGet());
+    }
+
+    private void assertRecomputed(Runnable read) {
+        int before = computations.get();
+        read.run();
+        assertThat(computations.get()).isEqualTo(before + 1);
+    }
+
+    private void assertCached(Runnable read) {
+        int before = computations.get();
+        read.run();
+        assertThat(computations.get()).isEqualTo(before);
+    }
+}
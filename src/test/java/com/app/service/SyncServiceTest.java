@@ -0,0 +1,221 @@
+package com.app.service;
+
+import com.app.dto.SyncResponse;
+import com.app.dto.TaskResponse;
+import com.app.repository.SubtaskRepository;
+import com.app.repository.SyncChangeRepository;
+import com.app.repository.TaskRepository;
+import com.app.repository.projection.CompletionKey;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cursor paging over the change log, against the Flyway schema: log order,
+ * pages that split one version, keys changed twice, and cursors that are too
+ * old to catch up from.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SyncServiceTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private SyncChangeRepository syncChangeRepository;
+    @Autowired private TaskRepository taskRepository;
+    @Autowired private SubtaskRepository subtaskRepository;
+
+    private final CurrentUserResolver currentUserResolver = mock(CurrentUserResolver.class);
+    private final LocalDate day = LocalDate.of(2026, 3, 1);
+
+    private SyncService syncService;
+    private UUID userId;
+    private Integer taskId;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @BeforeEach
+    void seed() {
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("insert into users (id, email, created_at) values (?, ?, now())",
+                userId, userId + "@example.com");
+        taskId = jdbcTemplate.queryForObject("""
+                insert into tasks (user_id, title, created_at, is_active, has_subtasks)
+                values (?, 'Synced', now(), true, false)
+                returning id
+                """, Integer.class, userId);
+        when(currentUserResolver.currentUserId()).thenReturn(userId);
+
+        syncService = syncService(Duration.ofDays(30));
+    }
+
+    @Test
+    void pagesFollowLogOrder() {
+        syncService.completionChanged(userId, taskId, day, true);
+        syncService.completionChanged(userId, taskId, day.plusDays(1), true);
+        syncService.completionChanged(userId, taskId, day.plusDays(2), true);
+        // Changing a key again moves it to the end of the log
+        syncService.completionChanged(userId, taskId, day, false);
+        syncService.completionChanged(userId, taskId, day, true);
+
+        SyncResponse first = sync(null, 2);
+        assertThat(first.getCompletedDates()).containsEntry(taskId, List.of(day.plusDays(1), day.plusDays(2)));
+        assertThat(first.isHasMore()).isTrue();
+
+        SyncResponse second = sync(first.getCursor(), 2);
+        assertThat(second.getCompletedDates()).containsEntry(taskId, List.of(day));
+        assertThat(second.getUncompletedDates()).isEmpty();
+        assertThat(second.isHasMore()).isFalse();
+
+        SyncResponse caughtUp = sync(second.getCursor(), 2);
+        assertThat(caughtUp.getCompletedDates()).isEmpty();
+        assertThat(caughtUp.isHasMore()).isFalse();
+    }
+
+    @Test
+    void pageBoundaryInsideOneVersionNeitherRepeatsNorSkips() {
+        List<CompletionKey> added = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            added.add(new CompletionKey(taskId, day.plusDays(i)));
+        }
+        syncService.completionsChanged(userId, added, List.of());
+
+        List<LocalDate> received = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        SyncResponse page;
+        do {
+            page = sync(cursor, 2);
+            received.addAll(page.getCompletedDates().getOrDefault(taskId, List.of()));
+            cursor = page.getCursor();
+            pages++;
+        } while (page.isHasMore());
+
+        // The task itself has no log row yet: only its five completions, at one version
+        assertThat(pages).isEqualTo(3);
+        assertThat(received).containsExactly(day, day.plusDays(1), day.plusDays(2), day.plusDays(3), day.plusDays(4));
+    }
+
+    @Test
+    void deleteAfterInsertInOnePageOnlyShowsTheDelete() {
+        syncService.taskChanged(userId, taskId);
+        SyncResponse before = sync(null, 100);
+
+        Integer droppedTaskId = taskId + 1000;
+        syncService.completionChanged(userId, taskId, day, true);
+        syncService.taskChanged(userId, droppedTaskId);
+        syncService.completionChanged(userId, droppedTaskId, day, true);
+        syncService.completionChanged(userId, taskId, day, false);
+        syncService.taskDeleted(userId, droppedTaskId);
+
+        SyncResponse changes = sync(before.getCursor(), 100);
+
+        assertThat(changes.getTasks()).isEmpty();
+        assertThat(changes.getDeletedTaskIds()).containsExactly(droppedTaskId);
+        assertThat(changes.getCompletedDates()).isEmpty();
+        assertThat(changes.getUncompletedDates()).containsOnlyKeys(taskId);
+    }
+
+    @Test
+    void fullSyncReturnsCurrentState() {
+        syncService.taskChanged(userId, taskId);
+        syncService.completionChanged(userId, taskId, day, true);
+
+        SyncResponse full = sync(null, 100);
+
+        assertThat(full.getTasks()).extracting(TaskResponse::getId).containsExactly(taskId);
+        assertThat(full.getCompletedDates()).containsEntry(taskId, List.of(day));
+        assertThat(full.isFullSyncRequired()).isFalse();
+    }
+
+    @Test
+    void cursorOlderThanTheRetentionRequiresAFullSync() throws InterruptedException {
+        SyncService shortRetention = syncService(Duration.ofMillis(50));
+        syncService.completionChanged(userId, taskId, day, true);
+        String cursor = sync(shortRetention, null, 100).getCursor();
+
+        Thread.sleep(100);
+        syncService.completionChanged(userId, taskId, day, false);
+
+        SyncResponse stale = sync(shortRetention, cursor, 100);
+        assertThat(stale.isFullSyncRequired()).isTrue();
+        assertThat(stale.getCursor()).isNull();
+        assertThat(stale.getUncompletedDates()).isEmpty();
+
+        // Starting over needs no cursor, so it is never stale
+        SyncResponse full = sync(shortRetention, null, 100);
+        assertThat(full.isFullSyncRequired()).isFalse();
+        assertThat(full.getCompletedDates()).isEmpty();
+        assertThat(full.getUncompletedDates()).containsEntry(taskId, List.of(day));
+    }
+
+    @Test
+    void expiredTombstonesAreDroppedAndLiveRowsKept() {
+        syncService.taskChanged(userId, taskId);
+        syncService.completionChanged(userId, taskId, day, true);
+        syncService.completionChanged(userId, taskId, day.plusDays(1), true);
+        syncService.completionChanged(userId, taskId, day.plusDays(1), false);
+        jdbcTemplate.update("update sync_changes set changed_at = now() - interval '40 days' where user_id = ?", userId);
+
+        assertThat(syncService.expireTombstones()).isEqualTo(1);
+
+        SyncResponse full = sync(null, 100);
+        assertThat(full.getTasks()).extracting(TaskResponse::getId).containsExactly(taskId);
+        assertThat(full.getCompletedDates()).containsEntry(taskId, List.of(day));
+        assertThat(full.getUncompletedDates()).isEmpty();
+    }
+
+    // Each request reads through a fresh persistence context, as it would in production
+    private SyncResponse sync(String cursor, int limit) {
+        return sync(syncService, cursor, limit);
+    }
+
+    private SyncResponse sync(SyncService service, String cursor, int limit) {
+        entityManager.clear();
+        return service.changesSince(cursor, limit);
+    }
+
+    private SyncService syncService(Duration tombstoneRetention) {
+        return new SyncService(syncChangeRepository, taskRepository, subtaskRepository,
+                currentUserResolver, tombstoneRetention);
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
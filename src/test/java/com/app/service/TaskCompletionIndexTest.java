@@ -0,0 +1,57 @@
+package com.app.service;
+
+import com.app.repository.TaskCompletionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskCompletionIndexTest {
+
+    private final TaskCompletionRepository completionRepository = mock(TaskCompletionRepository.class);
+    private final TaskCompletionIndex index = new TaskCompletionIndex(completionRepository, 100);
+
+    @AfterEach
+    void clearTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void cachesLoadsOutsideTransactions() {
+        when(completionRepository.findEpochDaysByTaskId(1)).thenReturn(new int[]{20000});
+
+        index.forTask(1);
+        index.forTask(1);
+
+        verify(completionRepository, times(1)).findEpochDaysByTaskId(1);
+    }
+
+    @Test
+    void cachesLoadsInReadOnlyTransactions() {
+        when(completionRepository.findEpochDaysByTaskId(1)).thenReturn(new int[]{20000});
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        index.forTask(1);
+        index.forTask(1);
+
+        verify(completionRepository, times(1)).findEpochDaysByTaskId(1);
+    }
+
+    // The load may include the transaction's own uncommitted writes
+    @Test
+    void doesNotCacheLoadsInReadWriteTransactions() {
+        when(completionRepository.findEpochDaysByTaskId(1)).thenReturn(new int[]{20000});
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        index.forTask(1);
+        index.forTask(1);
+
+        verify(completionRepository, times(2)).findEpochDaysByTaskId(1);
+    }
+}
@@ -0,0 +1,222 @@
+package com.app.service;
+
+import com.app.dto.ImportReportResponse;
+import com.app.model.Task;
+import com.app.model.User;
+import com.app.repository.TaskCompletionRepository;
+import com.app.repository.TaskRepository;
+import com.app.repository.projection.CompletionKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * CSV parsing and the per-row report of the completion import, with the
+ * repositories mocked: what reaches the bulk insert, and why other rows don't.
+ */
+class TaskImportServiceTest {
+
+    private static final int OWN_TASK = 10;
+    private static final int FOREIGN_TASK = 20;
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final TaskCompletionRepository completionRepository = mock(TaskCompletionRepository.class);
+    private final CurrentUserResolver currentUserResolver = mock(CurrentUserResolver.class);
+
+    private final TaskImportService importService = new TaskImportService(
+            taskRepository,
+            completionRepository,
+            currentUserResolver,
+            mock(TaskCompletionIndex.class),
+            mock(TaskStreakService.class),
+            mock(CompletionRollupService.class),
+            mock(UserDataVersions.class),
+            mock(GraphResultCache.class),
+            mock(SyncService.class),
+            new TransactionTemplate(mock(PlatformTransactionManager.class))
+    );
+
+    private final User user = new User();
+    private final LocalDate day = LocalDate.of(2025, 6, 1);
+
+    // Rows passed to the bulk inserts, copied at call time (the service reuses its chunk lists)
+    private final List<CompletionKey> insertedCompletions = new ArrayList<>();
+    private final List<Task> insertedTasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user.setId(UUID.randomUUID());
+        when(currentUserResolver.currentUser()).thenReturn(user);
+
+        // Old ids 1 and 2 map to the user's task; 3 maps to someone else's
+        when(taskRepository.findIdsByUserAndIdIn(eq(user), anyCollection())).thenReturn(List.of(OWN_TASK));
+
+        when(completionRepository.insertIgnoringDuplicates(any())).thenAnswer(invocation -> {
+            List<CompletionKey> chunk = List.copyOf(invocation.getArgument(0));
+            insertedCompletions.addAll(chunk);
+            return chunk;
+        });
+        doAnswer(invocation -> {
+            List<Task> chunk = invocation.getArgument(1);
+            for (Task task : chunk) {
+                task.setId(100 + insertedTasks.size());
+                insertedTasks.add(task);
+            }
+            return null;
+        }).when(taskRepository).insertAll(eq(user.getId()), any());
+    }
+
+    @Test
+    void importsValidRowsWithNormalizedHeaders() throws Exception {
+        ImportReportResponse report = importCompletions("""
+                Task_Id,Completed Date
+                1,2025-06-01
+                2,2025-06-02
+
+                1, 2025-06-03
+                """);
+
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getDuplicates()).isZero();
+        assertThat(report.getRejectedCount()).isZero();
+        assertThat(report.getRejected()).isEmpty();
+        assertThat(insertedCompletions).containsExactly(
+                new CompletionKey(OWN_TASK, day),
+                new CompletionKey(OWN_TASK, day.plusDays(1)),
+                new CompletionKey(OWN_TASK, day.plusDays(2)));
+    }
+
+    @Test
+    void rejectsMalformedRowsWithTheirLineNumbers() throws Exception {
+        ImportReportResponse report = importCompletions("""
+                taskId,completedDate,note
+                1,2025-06-01,ok
+                1,2025-06-02
+                x,2025-06-03,bad id
+                1,06/04/2025,bad date
+                1,0001-01-01,too old
+                1,9999-12-31,too new
+                """);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getRejectedCount()).isEqualTo(5);
+        assertThat(report.getRejected())
+                .extracting(ImportReportResponse.RowRejection::getLine, ImportReportResponse.RowRejection::getReason)
+                .containsExactly(
+                        tuple(3L, "Missing columns"),
+                        tuple(4L, "Invalid task id"),
+                        tuple(5L, "Invalid completed date"),
+                        tuple(6L, "Completed date out of range"),
+                        tuple(7L, "Completed date out of range"));
+        assertThat(insertedCompletions).containsExactly(new CompletionKey(OWN_TASK, day));
+    }
+
+    @Test
+    void rejectsTasksOutsideTheMappingOrOwnedByOthers() throws Exception {
+        ImportReportResponse report = importCompletions("""
+                taskId,completedDate
+                3,2025-06-01
+                4,2025-06-01
+                1,2025-06-01
+                """);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getRejected())
+                .extracting(ImportReportResponse.RowRejection::getLine, ImportReportResponse.RowRejection::getReason)
+                .containsExactly(
+                        tuple(2L, "Task not found"),
+                        tuple(3L, "Task id 4 is not in the task mapping"));
+        assertThat(insertedCompletions).containsExactly(new CompletionKey(OWN_TASK, day));
+    }
+
+    @Test
+    void countsDuplicatesInTheFileAndInTheDatabase() throws Exception {
+        // Already in the database: the insert skips it
+        CompletionKey existing = new CompletionKey(OWN_TASK, day.plusDays(1));
+        doAnswer(invocation -> {
+            List<CompletionKey> chunk = new ArrayList<>(invocation.getArgument(0));
+            insertedCompletions.addAll(chunk);
+            chunk.remove(existing);
+            return chunk;
+        }).when(completionRepository).insertIgnoringDuplicates(any());
+
+        // Old ids 1 and 2 map to the same task, so lines 3 and 4 repeat line 2
+        ImportReportResponse report = importCompletions("""
+                taskId,completedDate
+                1,2025-06-01
+                2,2025-06-01
+                1,2025-06-01
+                1,2025-06-02
+                """);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getDuplicates()).isEqualTo(3);
+        assertThat(report.getRejectedCount()).isZero();
+        assertThat(insertedCompletions).containsExactly(new CompletionKey(OWN_TASK, day), existing);
+    }
+
+    @Test
+    void reportsTheFirstRejectionsAndCountsTheRest() throws Exception {
+        StringBuilder csv = new StringBuilder("taskId,completedDate\n");
+        for (int i = 0; i < 1005; i++) {
+            csv.append("x,2025-06-01\n");
+        }
+
+        ImportReportResponse report = importCompletions(csv.toString());
+
+        assertThat(report.getRejectedCount()).isEqualTo(1005);
+        assertThat(report.getRejected()).hasSize(1000);
+        assertThat(report.getRejected().getLast().getLine()).isEqualTo(1001);
+    }
+
+    @Test
+    void requiresTaskIdAndCompletedDateColumns() {
+        assertThatThrownBy(() -> importCompletions("taskId,date\n1,2025-06-01\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("CSV must contain taskId and completedDate columns");
+    }
+
+    @Test
+    void parsesQuotedTaskFields() throws Exception {
+        Map<Integer, Integer> mapping = importService.importTasksCsv(csv("""
+                id,title,isActive,hasSubtasks
+                7,"Read, then write",false,true
+                8,"Say \"\"hi\"\"",true,false
+                ,No id,true,false
+                9,,true,false
+                """));
+
+        assertThat(insertedTasks).extracting(Task::getTitle)
+                .containsExactly("Read, then write", "Say \"hi\"", "No id");
+        assertThat(insertedTasks).extracting(Task::getIsActive).containsExactly(false, true, true);
+        assertThat(insertedTasks).extracting(Task::getHasSubtasks).containsExactly(true, false, false);
+        assertThat(mapping).containsExactlyInAnyOrderEntriesOf(Map.of(7, 100, 8, 101));
+    }
+
+    private ImportReportResponse importCompletions(String csv) throws Exception {
+        return importService.importTaskCompletionsCsv(csv(csv), Map.of(1, OWN_TASK, 2, OWN_TASK, 3, FOREIGN_TASK));
+    }
+
+    private static MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "import.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,190 @@
+package com.app.service;
+
+import com.app.model.TaskStreak;
+import com.app.repository.TaskCompletionRepository;
+import com.app.repository.TaskStreakRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Summary updates: each write locks the summary, then recomputes the latest
+ * run from the history with the changed day applied, and the best run only
+ * when the changed day can affect it.
+ */
+class TaskStreakServiceTest {
+
+    private static final int TASK_ID = 1;
+
+    private final LocalDate today = LocalDate.now();
+    private final TaskStreakRepository streakRepository = mock(TaskStreakRepository.class);
+    private final TaskCompletionRepository completionRepository = mock(TaskCompletionRepository.class);
+    private final TaskStreakService streakService = new TaskStreakService(
+            streakRepository, new TaskCompletionIndex(completionRepository, 100));
+
+    @Test
+    void completingTheNextDayExtendsTheRun() {
+        TaskStreak streak = summaryOf(days(3, 1));
+
+        streakService.recordCompleted(TASK_ID, today);
+
+        assertCurrent(streak, 4, today.minusDays(3), today);
+        assertBest(streak, 4, today.minusDays(3), today);
+    }
+
+    @Test
+    void completingTheGapBridgesTwoRuns() {
+        TaskStreak streak = summaryOf(days(5, 3), days(1, 0));
+
+        streakService.recordCompleted(TASK_ID, today.minusDays(2));
+
+        assertCurrent(streak, 6, today.minusDays(5), today);
+        assertBest(streak, 6, today.minusDays(5), today);
+    }
+
+    @Test
+    void undoingInsideTheBestRunKeepsTheCurrentRun() {
+        TaskStreak streak = summaryOf(days(20, 11), days(2, 0));
+
+        streakService.recordUndone(TASK_ID, today.minusDays(15));
+
+        assertCurrent(streak, 3, today.minusDays(2), today);
+        assertBest(streak, 5, today.minusDays(20), today.minusDays(16));
+    }
+
+    @Test
+    void completingAnOldGapCanMakeANewBestRun() {
+        TaskStreak streak = summaryOf(days(20, 18), days(16, 14), days(1, 0));
+
+        streakService.recordCompleted(TASK_ID, today.minusDays(17));
+
+        assertCurrent(streak, 2, today.minusDays(1), today);
+        assertBest(streak, 7, today.minusDays(20), today.minusDays(14));
+    }
+
+    @Test
+    void equalRunLaterInTimeBecomesTheBest() {
+        TaskStreak streak = summaryOf(days(10, 8), days(1, 0));
+
+        streakService.recordCompleted(TASK_ID, today.minusDays(2));
+
+        assertBest(streak, 3, today.minusDays(2), today);
+    }
+
+    @Test
+    void undoingOutsideTheBestRunLeavesIt() {
+        TaskStreak streak = summaryOf(days(10, 5), days(2, 0));
+
+        streakService.recordUndone(TASK_ID, today.minusDays(1));
+
+        assertCurrent(streak, 1, today, today);
+        assertBest(streak, 6, today.minusDays(10), today.minusDays(5));
+    }
+
+    @Test
+    void undoingTheDayBeforeTheLatestRunShortensIt() {
+        TaskStreak streak = summaryOf(days(4, 0));
+
+        streakService.recordUndone(TASK_ID, today.minusDays(4));
+
+        assertCurrent(streak, 4, today.minusDays(3), today);
+        assertBest(streak, 4, today.minusDays(3), today);
+    }
+
+    @Test
+    void undoingTodayEndsTheRunYesterday() {
+        TaskStreak streak = summaryOf(days(10, 8), days(2, 0));
+
+        streakService.recordUndone(TASK_ID, today);
+
+        assertCurrent(streak, 2, today.minusDays(2), today.minusDays(1));
+        assertThat(streak.getLastCompletedDate()).isEqualTo(today.minusDays(1));
+        assertBest(streak, 3, today.minusDays(10), today.minusDays(8));
+    }
+
+    @Test
+    void readsTheHistoryOnlyOnceTheSummaryIsLocked() {
+        summaryOf(days(3, 1));
+        clearInvocations(streakRepository, completionRepository);
+
+        streakService.recordCompleted(TASK_ID, today);
+
+        InOrder order = inOrder(streakRepository, completionRepository);
+        order.verify(streakRepository).findForUpdate(TASK_ID);
+        order.verify(completionRepository).findEpochDaysByTaskId(TASK_ID);
+    }
+
+    @Test
+    void firstWriteInsertsTheSummary() {
+        when(completionRepository.findEpochDaysByTaskId(TASK_ID)).thenReturn(days(2, 1));
+        when(streakRepository.findForUpdate(TASK_ID)).thenReturn(Optional.empty());
+        ArgumentCaptor<TaskStreak> inserted = ArgumentCaptor.forClass(TaskStreak.class);
+        when(streakRepository.insertIfAbsent(inserted.capture())).thenReturn(1);
+
+        streakService.recordCompleted(TASK_ID, today);
+
+        assertCurrent(inserted.getValue(), 3, today.minusDays(2), today);
+        assertBest(inserted.getValue(), 3, today.minusDays(2), today);
+        verify(streakRepository, times(1)).findForUpdate(TASK_ID);
+    }
+
+    @Test
+    void firstWriteLosingTheInsertRaceLocksTheOtherSummary() {
+        when(completionRepository.findEpochDaysByTaskId(TASK_ID)).thenReturn(days(2, 1));
+        TaskStreak concurrent = new TaskStreak();
+        when(streakRepository.findForUpdate(TASK_ID)).thenReturn(Optional.empty(), Optional.of(concurrent));
+        when(streakRepository.insertIfAbsent(any())).thenReturn(0);
+
+        streakService.recordCompleted(TASK_ID, today);
+
+        InOrder order = inOrder(streakRepository, completionRepository);
+        order.verify(streakRepository).insertIfAbsent(any());
+        order.verify(streakRepository).findForUpdate(TASK_ID);
+        order.verify(completionRepository).findEpochDaysByTaskId(TASK_ID);
+        assertCurrent(concurrent, 3, today.minusDays(2), today);
+    }
+
+    // Summary of the given history, as persisted before the write under test
+    private TaskStreak summaryOf(int[]... runs) {
+        int[] epochDays = Arrays.stream(runs).flatMapToInt(IntStream::of).sorted().toArray();
+        when(completionRepository.findEpochDaysByTaskId(TASK_ID)).thenReturn(epochDays);
+        when(streakRepository.findById(TASK_ID)).thenReturn(Optional.empty());
+
+        TaskStreak streak = streakService.getSummary(TASK_ID);
+        when(streakRepository.findForUpdate(TASK_ID)).thenReturn(Optional.of(streak));
+        return streak;
+    }
+
+    // Epoch days from fromDaysAgo to toDaysAgo, both inclusive
+    private int[] days(int fromDaysAgo, int toDaysAgo) {
+        return IntStream.rangeClosed(toDaysAgo, fromDaysAgo)
+                .map(daysAgo -> (int) today.minusDays(daysAgo).toEpochDay())
+                .toArray();
+    }
+
+    private static void assertCurrent(TaskStreak streak, int days, LocalDate from, LocalDate to) {
+        assertThat(streak.getCurrentStreak()).as("current streak").isEqualTo(days);
+        assertThat(streak.getCurrentFrom()).as("current from").isEqualTo(from);
+        assertThat(streak.getCurrentTo()).as("current to").isEqualTo(to);
+    }
+
+    private static void assertBest(TaskStreak streak, int days, LocalDate from, LocalDate to) {
+        assertThat(streak.getBestStreak()).as("best streak").isEqualTo(days);
+        assertThat(streak.getBestFrom()).as("best from").isEqualTo(from);
+        assertThat(streak.getBestTo()).as("best to").isEqualTo(to);
+    }
+}